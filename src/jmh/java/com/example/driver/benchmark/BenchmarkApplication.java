@@ -0,0 +1,58 @@
+package com.example.driver.benchmark;
+
+import com.example.driver.DriverApplication;
+import com.example.driver.model.Driver;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without a web server on an in-memory H2 seeded with {@code rows} generated drivers.
+ * Generated driver {@code n} has license {@code L<n>}, vehicle number {@code V<n>} and email
+ * {@code driver<n>@example.com}, next to the three drivers inserted by the migrations.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param properties extra settings as {@code key=value}; like the defaults below they are passed as
+     *                   command line arguments so they override application.properties
+     */
+    static ConfigurableApplicationContext start(int rows, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                "--logging.level.org.hibernate.SQL=INFO",
+                "--logging.level.root=WARN",
+                "--driver.rest-logging.mode=none"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+
+        return new SpringApplicationBuilder(DriverApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                // Seed before the application runners, so startup work such as the unique key index sees the data
+                .listeners(event -> {
+                    if (event instanceof ApplicationStartedEvent started) {
+                        seed(started.getApplicationContext().getBean(JdbcTemplate.class), rows);
+                    }
+                })
+                .run(args.toArray(String[]::new));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        // The id column has no default, so number the rows after the migration ones and move the sequence past them
+        jdbcTemplate.update("INSERT INTO DRIVER(id, driver_name, license_number, vehicle_model, vehicle_number, email) " +
+                "SELECT X + 3, 'Driver ' || X, 'L' || X, 'Model ' || MOD(X, 50), 'V' || X, 'driver' || X || '@example.com' " +
+                "FROM SYSTEM_RANGE(1, ?)", rows);
+        Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM DRIVER", Integer.class);
+        jdbcTemplate.execute("ALTER SEQUENCE driver_seq RESTART WITH " + (maxId + Driver.ALLOCATION_SIZE));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.driver.benchmark;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.service.DriverService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the /api/driver/all payload in each format the endpoint can negotiate, optionally gzipped as the
+ * server does for {@code Accept-Encoding: gzip}. The mappers come from Spring Boot's builder like the
+ * application's converters. The encoded size of each combination is reported as the {@code bytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DriverFormatBenchmark {
+    @Param({"10", "10000"})
+    private int rows;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private List<DriverDTO> drivers;
+    private long encodedSize;
+
+    /**
+     * Encoded size of the payload in bytes, listed with the timings of each iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void setUp(DriverFormatBenchmark benchmark) {
+            bytes = benchmark.encodedSize;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start(rows);
+        Jackson2ObjectMapperBuilder builder = context.getBean(Jackson2ObjectMapperBuilder.class);
+        objectMapper = switch (format) {
+            case "json" -> builder.build();
+            case "cbor" -> builder.cbor().build();
+            case "smile" -> builder.smile().build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        drivers = context.getBean(DriverService.class).getAllDrivers(DriverField.ALL);
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        write(encoded);
+        encodedSize = encoded.size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void encodeDrivers(EncodedSize size) throws IOException {
+        write(OutputStream.nullOutputStream());
+    }
+
+    private void write(OutputStream outputStream) throws IOException {
+        if (gzip) {
+            try (GZIPOutputStream compressed = new GZIPOutputStream(outputStream)) {
+                objectMapper.writeValue(compressed, drivers);
+            }
+        } else {
+            objectMapper.writeValue(outputStream, drivers);
+        }
+    }
+}
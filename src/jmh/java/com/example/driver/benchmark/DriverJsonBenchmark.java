@@ -0,0 +1,62 @@
+package com.example.driver.benchmark;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.service.DriverService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the /api/driver/all payload with the application's ObjectMapper, in full and with
+ * {@code fields=id,vehicleNumber}. The output is discarded, so only the serialization cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DriverJsonBenchmark {
+    @Param({"10", "10000", "1000000"})
+    private int rows;
+
+    @Param({"", "id,vehicleNumber"})
+    private String fields;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private List<DriverDTO> drivers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(rows);
+        objectMapper = context.getBean(ObjectMapper.class);
+        drivers = context.getBean(DriverService.class).getAllDrivers(DriverField.parse(fields));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void serializeDrivers() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), drivers);
+    }
+}
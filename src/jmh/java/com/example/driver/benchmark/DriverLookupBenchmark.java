@@ -0,0 +1,79 @@
+package com.example.driver.benchmark;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.service.DriverService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-get by id with the IN-list chunks loaded one after another or fanned out on the application task
+ * executor ({@code driver.lookup.parallel}). The cache is off so every call reaches the database; run with
+ * {@code -t} above 1 to see how the fan-out behaves under concurrent requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DriverLookupBenchmark {
+    @Param("100000")
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    @Param("1000")
+    private int lookupSize;
+
+    @Param("250")
+    private int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private DriverService driverService;
+    private List<Integer> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(rows,
+                "driver.cache.enabled=false",
+                "driver.lookup.parallel=" + parallel,
+                "driver.lookup.chunk-size=" + chunkSize,
+                "driver.lookup.max-ids=" + lookupSize);
+        driverService = context.getBean(DriverService.class);
+
+        Random random = new Random(42);
+        ids = new ArrayList<>(lookupSize);
+        while (ids.size() < lookupSize) {
+            int id = 4 + random.nextInt(rows);
+            if (!ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DriverDTO> getDriverByIds() {
+        return driverService.getDriverByIds(ids);
+    }
+}
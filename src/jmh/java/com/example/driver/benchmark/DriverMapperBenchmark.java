@@ -0,0 +1,45 @@
+package com.example.driver.benchmark;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.mapper.DriverMapper;
+import com.example.driver.model.Driver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DriverMapperBenchmark {
+    private final DriverMapper driverMapper = new DriverMapper();
+
+    private final Driver driver = Driver.builder()
+            .id(1)
+            .name("Robert Brown")
+            .email("robert.brown@example.com")
+            .licenseNumber("D1122334")
+            .vehicleModel("Ford Focus")
+            .vehicleNumber("LMN9123")
+            .build();
+
+    private final DriverDTO driverDTO = driverMapper.mapToDTO(driver);
+
+    @Benchmark
+    public DriverDTO mapToDTO() {
+        return driverMapper.mapToDTO(driver);
+    }
+
+    @Benchmark
+    public Driver mapToEntity() {
+        return driverMapper.mapToEntity(driverDTO);
+    }
+}
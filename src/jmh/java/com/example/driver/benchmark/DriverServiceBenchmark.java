@@ -0,0 +1,98 @@
+package com.example.driver.benchmark;
+
+import com.example.driver.controller.DriverController;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UniqueException;
+import com.example.driver.service.DriverService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service paths that hit the database: the uniqueness pre-check run before every write, and the
+ * multi-get by id including the X-MISSING-SET computation. The cache is off so the lookups reach the database
+ * instead of being answered from memory after the warm-up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DriverServiceBenchmark {
+    @Param({"10", "10000", "1000000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean uniqueIndex;
+
+    // Half of the requested ids exist
+    @Param("1000")
+    private int lookupSize;
+
+    private ConfigurableApplicationContext context;
+    private DriverService driverService;
+    private DriverController driverController;
+    private DriverDTO conflictingDriver;
+    private List<Integer> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(rows,
+                "driver.cache.enabled=false",
+                "driver.unique-index.enabled=" + uniqueIndex);
+        driverService = context.getBean(DriverService.class);
+        driverController = context.getBean(DriverController.class);
+
+        int existing = Math.max(1, rows / 2);
+        conflictingDriver = DriverDTO.builder()
+                .name("Conflicting Driver")
+                .email("new@example.com")
+                .licenseNumber("L" + existing)
+                .vehicleModel("Model")
+                .vehicleNumber("NEW1")
+                .build();
+
+        Random random = new Random(42);
+        ids = new ArrayList<>(lookupSize);
+        for (int i = 0; i < lookupSize; i++) {
+            // Seeded rows follow the three migration rows
+            ids.add(i % 2 == 0 ? 4 + random.nextInt(rows) : -1 - i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UniqueException checkFieldUniqueness() {
+        try {
+            driverService.createDriver(conflictingDriver);
+        } catch (UniqueException e) {
+            return e;
+        }
+        throw new IllegalStateException("Expected " + conflictingDriver.licenseNumber() + " to conflict");
+    }
+
+    @Benchmark
+    public ResponseEntity<List<DriverDTO>> getDriverByIds() {
+        return driverController.getDriverByIds(ids, null);
+    }
+}
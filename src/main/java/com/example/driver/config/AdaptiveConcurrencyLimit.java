@@ -0,0 +1,89 @@
+package com.example.driver.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit of one path that follows its latency, after the gradient limit of Netflix's concurrency-limits.
+ * A long-term average of the latency stands for the path without queueing. While recent requests take no longer
+ * than that times the tolerance, the limit grows by a few requests; the more they exceed it, the more it shrinks.
+ * Permits are taken and returned without locking; only the limit update after a request is synchronized.
+ */
+final class AdaptiveConcurrencyLimit {
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double shortLatency;
+    private double longLatency;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a permit, or returns {@code false} if as many requests as the limit allows are already running.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the permit of a request that took {@code latencyNanos} while {@code inFlightAtStart} requests, itself
+     * included, were running.
+     */
+    void release(long latencyNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(latencyNanos, inFlightAtStart);
+    }
+
+    private synchronized void update(long latencyNanos, int inFlightAtStart) {
+        double latency = Math.max(latencyNanos, 1);
+        if (longLatency == 0) {
+            shortLatency = latency;
+            longLatency = latency;
+            return;
+        }
+        shortLatency = average(shortLatency, latency, SHORT_WINDOW);
+        longLatency = average(longLatency, latency, LONG_WINDOW);
+        // Once a queue has drained the long-term average still remembers it; let it catch up sooner
+        if (longLatency > 2 * shortLatency) {
+            longLatency *= 0.95;
+        }
+        // With the limit far from reached, latency says nothing about whether more requests would fit
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, latencyTolerance * longLatency / shortLatency));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    private static double average(double average, double sample, int window) {
+        return average + (sample - average) * 2 / (window + 1);
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
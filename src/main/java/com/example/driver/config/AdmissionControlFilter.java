@@ -0,0 +1,228 @@
+package com.example.driver.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Turns requests away before they reach a controller, so that one client or a burst of expensive reads cannot
+ * take every pooled connection and queue everyone else behind it.
+ * <ul>
+ *     <li>Each client, by issued API key or else remote address, gets a token bucket refilled at {@code rate} per second
+ *     and holding up to {@code burst}. A client out of tokens gets 429 with {@code Retry-After} set to when the
+ *     next one is due.</li>
+ *     <li>Each {@code limited} path allows as many concurrent {@code limitedMethods} requests as its
+ *     {@link AdaptiveConcurrencyLimit}. Beyond that the request gets 503 with {@code Retry-After} instead of waiting
+ *     for a connection.</li>
+ * </ul>
+ * The bucket of a client is a single theoretical arrival time updated by compare-and-set (GCRA), so no lock is
+ * taken on the request path. Rejections are published as {@code driver.admission.rejected} tagged with the
+ * reason, and each path's limit and requests in flight as {@code driver.admission.limit} and
+ * {@code driver.admission.in.flight}. Runs inside {@link RestLoggingFilter}, so rejected requests are logged too,
+ * and outside {@link ReplicaRoutingFilter}, so they are turned away before a client's write is remembered.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final byte[] TOO_MANY_REQUESTS = "{\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SERVICE_UNAVAILABLE = "{\"message\":\"Server is busy\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AdmissionControlProperties properties;
+    private final LongSupplier nanoTime;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final long interval;
+    private final long burstWindow;
+    private final Cache<String, AtomicLong> buckets;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new LinkedHashMap<>();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong concurrencyLimited = new AtomicLong();
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionControlProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdmissionControlFilter(AdmissionControlProperties properties, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / properties.rate());
+        this.burstWindow = interval * properties.burst();
+        // A client idle for the burst window has a full bucket again, the same as one that was never seen
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofNanos(burstWindow))
+                .build();
+        properties.limited().forEach(path -> limits.put(path, new AdaptiveConcurrencyLimit(properties.initialLimit(),
+                properties.minLimit(), properties.maxLimit(), properties.latencyTolerance())));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled() || matches(properties.exclude(), request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long wait = takeToken(buckets.get(clientKey(request, properties), key -> new AtomicLong(Long.MIN_VALUE)), nanoTime.getAsLong());
+        if (wait > 0) {
+            rateLimited.incrementAndGet();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, TOO_MANY_REQUESTS);
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limit = limitFor(request);
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limit.tryAcquire()) {
+            concurrencyLimited.incrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        long start = nanoTime.getAsLong();
+        int inFlight = limit.inFlight();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release(nanoTime.getAsLong() - start, inFlight);
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streamed responses hold their connection until they are done; so does the permit
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Takes a token from the bucket whose theoretical arrival time is {@code bucket}: the time at which it would be
+     * full again. Returns 0 if a token was taken, or else the nanoseconds until one is due.
+     */
+    private long takeToken(AtomicLong bucket, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - burstWindow;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * The API key sent in {@code apiKeyHeader} if it is one of {@code apiKeys}, or else the remote address.
+     */
+    static String clientKey(HttpServletRequest request, AdmissionControlProperties properties) {
+        String apiKey = request.getHeader(properties.apiKeyHeader());
+        return apiKey != null && properties.apiKeys().contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private AdaptiveConcurrencyLimit limitFor(HttpServletRequest request) {
+        if (!properties.limitedMethods().contains(request.getMethod())) {
+            return null;
+        }
+        for (Map.Entry<String, AdaptiveConcurrencyLimit> limit : limits.entrySet()) {
+            if (pathMatcher.match(limit.getKey(), request.getRequestURI())) {
+                return limit.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos, byte[] body) throws IOException {
+        long retryAfter = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("driver.admission.rejected", rateLimited, AtomicLong::get)
+                .tag("reason", "rate")
+                .register(registry);
+        FunctionCounter.builder("driver.admission.rejected", concurrencyLimited, AtomicLong::get)
+                .tag("reason", "concurrency")
+                .register(registry);
+        limits.forEach((path, limit) -> {
+            Gauge.builder("driver.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                    .tag("path", path)
+                    .register(registry);
+            Gauge.builder("driver.admission.in.flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                    .tag("path", path)
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Settings for {@link AdmissionControlFilter}. Paths are Ant-style patterns matched against the request URI.
+ *
+ * @param enabled           whether requests are rate and concurrency limited at all
+ * @param exclude           paths that are never limited
+ * @param apiKeyHeader      request header identifying the client
+ * @param apiKeys           API keys issued to clients; requests without one of them are limited per remote address,
+ *                          so a client cannot get a fresh bucket by sending a made-up key. Behind a reverse proxy
+ *                          that address is the proxy's unless {@code server.forward-headers-strategy} is set
+ * @param rate              requests per second a client is allowed on average
+ * @param burst             requests a client that has been idle may send at once
+ * @param maxClients        clients whose rate is tracked; the least recently seen are forgotten first
+ * @param limited           expensive paths whose concurrent requests are limited, each path with its own limit
+ * @param limitedMethods    request methods the concurrency limits apply to; writes to a limited path are not limited
+ * @param initialLimit      concurrent requests allowed per limited path before any latency has been observed
+ * @param minLimit          lowest concurrency a limited path is shrunk to
+ * @param maxLimit          highest concurrency a limited path grows to; about the connection pool size
+ * @param latencyTolerance  how many times the usual latency a path may take before its limit shrinks
+ */
+@ConfigurationProperties(prefix = "driver.admission")
+public record AdmissionControlProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue({"/h2-console/**", "/actuator/**"}) List<String> exclude,
+        @DefaultValue("X-API-Key") String apiKeyHeader,
+        @DefaultValue Set<String> apiKeys,
+        @DefaultValue("50") double rate,
+        @DefaultValue("100") int burst,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue({"/api/driver", "/api/driver/all", "/api/driver/stream", "/api/driver/page", "/api/driver/search"}) List<String> limited,
+        @DefaultValue({"GET", "HEAD"}) Set<String> limitedMethods,
+        @DefaultValue("10") int initialLimit,
+        @DefaultValue("2") int minLimit,
+        @DefaultValue("20") int maxLimit,
+        @DefaultValue("1.5") double latencyTolerance
+) {
+}
@@ -0,0 +1,123 @@
+package com.example.driver.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * Writes the response straight through to the client and keeps a copy of at most {@code limit} bytes.
+ * Unlike {@link org.springframework.web.util.ContentCachingResponseWrapper} nothing is held back, so
+ * large and streamed responses cost no more memory than the limit.
+ */
+class BodyCapturingResponseWrapper extends HttpServletResponseWrapper {
+    private final int limit;
+    private final ByteArrayOutputStream captured;
+    private long size;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    BodyCapturingResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        this.limit = limit;
+        this.captured = new ByteArrayOutputStream(Math.min(limit, 1024));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * The captured start of the body, decoded with the response character encoding.
+     */
+    String getCapturedBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return captured.toString(Charset.forName(getCharacterEncoding()));
+    }
+
+    /**
+     * Total number of bytes written, including those beyond the capture limit.
+     */
+    long getBodySize() {
+        return size;
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        int room = limit - captured.size();
+        if (room > 0) {
+            captured.write(bytes, offset, Math.min(room, length));
+        }
+        size += length;
+    }
+
+    private class TeeOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (captured.size() < limit) {
+                captured.write(b);
+            }
+            size++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            capture(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "driver.bulk")
+public record BulkProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("10000") int maxItems
+) {
+}
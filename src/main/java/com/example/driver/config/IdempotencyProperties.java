@@ -0,0 +1,14 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "driver.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("1h") Duration ttl,
+        @DefaultValue("255") int maxKeyLength
+) {
+}
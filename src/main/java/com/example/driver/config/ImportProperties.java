@@ -0,0 +1,17 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * @param directory where uploaded import files are kept until their job completes; must outlive a restart for jobs to resume
+ * @param chunkSize rows validated, checked for conflicts and committed together
+ */
+@ConfigurationProperties(prefix = "driver.import")
+public record ImportProperties(
+        @DefaultValue("data/imports") Path directory,
+        @DefaultValue("1000") int chunkSize
+) {
+}
@@ -0,0 +1,23 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxIds       most distinct ids accepted by one multi-get
+ * @param chunkSize    most ids sent to the database in one IN list
+ * @param parallel     fetch the chunks of a multi-get concurrently on the application task executor
+ * @param batchWindow  how long a single lookup that missed the cache waits for others to share its query; zero disables batching
+ * @param maxBatchSize most single lookups read by one query; a full batch does not wait for the window
+ */
+@ConfigurationProperties(prefix = "driver.lookup")
+public record LookupProperties(
+        @DefaultValue("1000") int maxIds,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("false") boolean parallel,
+        @DefaultValue("0ms") Duration batchWindow,
+        @DefaultValue("100") int maxBatchSize
+) {
+}
@@ -0,0 +1,41 @@
+package com.example.driver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary alternatives to JSON for service-to-service reads, chosen with {@code Accept}. Spring MVC registers
+ * CBOR and Smile converters on its own once the dataformats are on the classpath, but with a bare
+ * ObjectMapper; these are rebuilt from Spring Boot's builder so they follow the same
+ * {@code spring.jackson.*} settings and modules as the JSON responses.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MessageFormatConfig implements WebMvcConfigurer {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public MessageFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        // The builder bean is a prototype, so each format gets its own copy to configure
+        ObjectMapper cborMapper = objectMapperBuilder.getObject().cbor().build();
+        ObjectMapper smileMapper = objectMapperBuilder.getObject().smile().build();
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileMapper));
+    }
+}
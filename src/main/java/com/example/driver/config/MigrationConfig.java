@@ -0,0 +1,101 @@
+package com.example.driver.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.MigrationVersion;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Migrates the schema on startup unless {@code driver.migration.skip-when-current} is set and the schema history
+ * already contains the newest versioned migration bundled with the application. Validation alone parses every
+ * migration and reads the whole history, which is wasted on an instance started against a schema that an earlier
+ * instance has already migrated. When the history cannot be read, or a location is not on the class path, Flyway
+ * migrates as usual.
+ */
+@Log4j2
+@Configuration(proxyBeanMethods = false)
+public class MigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(MigrationProperties migrationProperties) {
+        return flyway -> {
+            if (migrationProperties.skipWhenCurrent() && isCurrent(flyway)) {
+                log.info("Schema is at the newest bundled migration, skipping Flyway migrate");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+
+    static boolean isCurrent(Flyway flyway) {
+        try {
+            MigrationVersion bundled = newestBundledVersion(flyway);
+            MigrationVersion applied = newestAppliedVersion(flyway);
+            return bundled != null && bundled.equals(applied);
+        } catch (IOException | SQLException e) {
+            log.debug("Could not compare the schema history with the bundled migrations", e);
+            return false;
+        }
+    }
+
+    private static MigrationVersion newestBundledVersion(Flyway flyway) throws IOException {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(flyway.getConfiguration().getClassLoader());
+        String prefix = flyway.getConfiguration().getSqlMigrationPrefix();
+        String separator = flyway.getConfiguration().getSqlMigrationSeparator();
+        MigrationVersion newest = null;
+        for (Location location : flyway.getConfiguration().getLocations()) {
+            if (!location.isClassPath()) {
+                return null;
+            }
+            // Java migrations are found by their compiled class, named like the SQL ones
+            List<String> suffixes = new ArrayList<>(Arrays.asList(flyway.getConfiguration().getSqlMigrationSuffixes()));
+            suffixes.add(".class");
+            for (String suffix : suffixes) {
+                String pattern = "classpath*:" + location.getRootPath() + "/**/" + prefix + "*" + separator + "*" + suffix;
+                for (Resource resource : resolver.getResources(pattern)) {
+                    String name = resource.getFilename();
+                    String version = name.substring(prefix.length(), name.indexOf(separator));
+                    MigrationVersion candidate = MigrationVersion.fromVersion(version);
+                    if (newest == null || candidate.compareTo(newest) > 0) {
+                        newest = candidate;
+                    }
+                }
+            }
+        }
+        return newest;
+    }
+
+    private static MigrationVersion newestAppliedVersion(Flyway flyway) throws SQLException {
+        String table = flyway.getConfiguration().getTable();
+        String schema = flyway.getConfiguration().getDefaultSchema();
+        String qualifiedTable = schema == null ? "\"" + table + "\"" : "\"" + schema + "\".\"" + table + "\"";
+        MigrationVersion newest = null;
+        try (Connection connection = flyway.getConfiguration().getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet versions = statement.executeQuery(
+                     "SELECT \"version\" FROM " + qualifiedTable + " WHERE \"success\" AND \"version\" IS NOT NULL")) {
+            while (versions.next()) {
+                MigrationVersion candidate = MigrationVersion.fromVersion(versions.getString(1));
+                if (newest == null || candidate.compareTo(newest) > 0) {
+                    newest = candidate;
+                }
+            }
+        }
+        return newest;
+    }
+}
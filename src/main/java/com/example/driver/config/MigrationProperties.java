@@ -0,0 +1,14 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param skipWhenCurrent skip Flyway's validate and migrate on startup when the database already has the newest bundled
+ *                        versioned migration applied; checksums of applied migrations are then not verified
+ */
+@ConfigurationProperties(prefix = "driver.migration")
+public record MigrationProperties(
+        @DefaultValue("false") boolean skipWhenCurrent
+) {
+}
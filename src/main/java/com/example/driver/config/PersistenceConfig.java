@@ -0,0 +1,96 @@
+package com.example.driver.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lets JPA and R2DBC share the application. Spring Boot skips its own JDBC DataSource as soon as an
+ * R2DBC ConnectionFactory exists, so the pool is declared here for JPA and Flyway. With a second,
+ * reactive transaction manager in the context, the JPA one is marked primary so that plain
+ * {@code @Transactional} keeps resolving to it.
+ * <p>
+ * The DataSource the application uses routes read-only transactions to the replicas in
+ * {@code driver.replica.urls}, see {@link ReplicaRoutingDataSource}. Each replica gets a pool like the primary's,
+ * named after it. The reactive API keeps reading from the primary.
+ * <p>
+ * Unless {@code spring.r2dbc.url} is set, R2DBC opens the H2 database of {@code spring.datasource.url} with the
+ * same credentials, so one setting moves both APIs and they cannot drift onto different databases.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaProperties.class})
+public class PersistenceConfig {
+    private static final String H2_JDBC_PREFIX = "jdbc:h2:";
+    // r2dbc-h2 option that replaces the URL's protocol and database with a complete H2 database URL
+    private static final Option<String> H2_URL = Option.valueOf("url");
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, ReplicaProperties replicaProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        String poolName = primaryDataSource.getPoolName() != null ? primaryDataSource.getPoolName() + "-replica-" : "replica-";
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.urls().size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setJdbcUrl(replicaProperties.urls().get(i));
+            replica.setPoolName(poolName + (i + 1));
+            replica.setMetricRegistry(meterRegistry.getIfAvailable());
+            // A replica that is down at startup is left out until it comes back instead of failing the start
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaProperties.retryAfter());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer reactiveDatabaseFromJdbc(DataSourceProperties dataSourceProperties,
+                                                                               R2dbcProperties r2dbcProperties) {
+        return builder -> {
+            String jdbcUrl = dataSourceProperties.determineUrl();
+            if (r2dbcProperties.getUrl() != null || jdbcUrl == null || !jdbcUrl.startsWith(H2_JDBC_PREFIX)) {
+                return;
+            }
+            builder.option(H2_URL, jdbcUrl.substring(H2_JDBC_PREFIX.length()));
+            builder.option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername());
+            builder.option(ConnectionFactoryOptions.PASSWORD, Objects.requireNonNullElse(dataSourceProperties.determinePassword(), ""));
+        };
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
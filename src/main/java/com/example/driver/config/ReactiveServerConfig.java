@@ -0,0 +1,136 @@
+package com.example.driver.config;
+
+import com.example.driver.controller.ReactiveDriverController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Serves {@link ReactiveDriverController} from a Netty server on {@code driver.reactive.port}, so its requests are
+ * handled on a few event-loop threads instead of Tomcat's request pool. Spring MVC keeps serving everything else;
+ * the servlet filters (request logging, admission control, replica routing) do not apply to this port. The server
+ * only starts when the application runs an embedded web server, so tests with a mock servlet environment and the
+ * benchmarks do not bind a port.
+ */
+@Log4j2
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "driver.reactive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveServerConfig {
+
+    /**
+     * Codecs as configured by Spring Boot for JSON and NDJSON, plus CBOR and Smile built from the same
+     * {@code spring.jackson.*} settings, like {@link MessageFormatConfig} does for Spring MVC.
+     */
+    @Bean
+    HandlerStrategies reactiveHandlerStrategies(ObjectProvider<CodecCustomizer> codecCustomizers,
+                                                ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        ObjectMapper cborMapper = objectMapperBuilder.getObject().cbor().build();
+        ObjectMapper smileMapper = objectMapperBuilder.getObject().smile().build();
+        // Without media types these codecs would claim JSON
+        MediaType smile = MediaType.parseMediaType(MessageFormatConfig.APPLICATION_SMILE_VALUE);
+        return HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    codecCustomizers.orderedStream().forEach(customizer -> customizer.customize(configurer));
+                    configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+                    configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+                    configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper, smile));
+                    configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper, smile));
+                })
+                .build();
+    }
+
+    @Bean
+    ReactiveServerLifecycle reactiveServerLifecycle(ReactiveServerProperties properties, ReactiveDriverController controller,
+                                                    HandlerStrategies reactiveHandlerStrategies, ApplicationContext applicationContext) {
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(controller.routes(), reactiveHandlerStrategies);
+        return new ReactiveServerLifecycle(properties, httpHandler, applicationContext instanceof WebServerApplicationContext);
+    }
+
+    /**
+     * The HTTP message writer always calls {@link #encode}, which Spring's CBOR encoder rejects even for a single
+     * value. Responses here are single documents, so that value is encoded in one piece.
+     */
+    static class SingleValueCborEncoder extends Jackson2CborEncoder {
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                       MimeType mimeType, Map<String, Object> hints) {
+            if (!(inputStream instanceof Mono<?> mono)) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+    }
+
+    /**
+     * Starts the server with the context and stops it first on shutdown, before the connection factories close.
+     */
+    static class ReactiveServerLifecycle implements SmartLifecycle {
+        private final ReactiveServerProperties properties;
+        private final HttpHandler httpHandler;
+        private final boolean embeddedServer;
+        private volatile WebServer webServer;
+
+        ReactiveServerLifecycle(ReactiveServerProperties properties, HttpHandler httpHandler, boolean embeddedServer) {
+            this.properties = properties;
+            this.httpHandler = httpHandler;
+            this.embeddedServer = embeddedServer;
+        }
+
+        @Override
+        public void start() {
+            if (!embeddedServer) {
+                return;
+            }
+            NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory(properties.port());
+            factory.setAddress(properties.address());
+            webServer = factory.getWebServer(httpHandler);
+            webServer.start();
+            log.info("Reactive driver API started on port {}", webServer.getPort());
+        }
+
+        @Override
+        public void stop() {
+            WebServer server = webServer;
+            if (server != null) {
+                server.stop();
+                webServer = null;
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return webServer != null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.InetAddress;
+
+/**
+ * @param enabled start the Netty server for {@code /api/reactive/driver} next to the servlet container
+ * @param port    port of that server; it must differ from {@code server.port}
+ * @param address network address to bind; all interfaces when unset
+ */
+@ConfigurationProperties(prefix = "driver.reactive")
+public record ReactiveServerProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8082") int port,
+        InetAddress address
+) {
+}
@@ -0,0 +1,26 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for {@link ReplicaRoutingDataSource}. Replicas share the credentials and pool settings of
+ * {@code spring.datasource}.
+ *
+ * @param urls          JDBC URLs of the read replicas; without any, every transaction goes to the primary
+ * @param retryAfter    how long a replica that failed to hand out a connection is left out
+ * @param readYourWrites how long after a write the same client's reads go to the primary; about the replication lag,
+ *                       zero to turn it off
+ * @param maxClients    clients whose last write is remembered for {@code readYourWrites}
+ */
+@ConfigurationProperties(prefix = "driver.replica")
+public record ReplicaProperties(
+        @DefaultValue List<String> urls,
+        @DefaultValue("10s") Duration retryAfter,
+        @DefaultValue("5s") Duration readYourWrites,
+        @DefaultValue("100000") long maxClients
+) {
+}
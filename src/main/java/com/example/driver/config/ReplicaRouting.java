@@ -0,0 +1,140 @@
+package com.example.driver.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Routing state of the request on the current thread, opened by {@link ReplicaRoutingFilter}. Within a request
+ * every read-only transaction goes to the same replica, so that reads made one after another, such as a table
+ * version and then the rows it tags, never see the table go back in time. A request from a client that has just
+ * written reads from the primary instead. Work a request hands to other threads takes its scope along with
+ * {@link #propagate}; loads shared between requests run under {@link #callWith} the replica they are keyed by.
+ */
+public final class ReplicaRouting {
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    static final class Scope {
+        private final boolean primaryRequired;
+        // Set from whichever of the request's threads reads first
+        private final AtomicReference<Object> replica = new AtomicReference<>();
+        private volatile boolean replicaRead;
+
+        private Scope(boolean primaryRequired) {
+            this.primaryRequired = primaryRequired;
+        }
+
+        Object replica() {
+            return replica.get();
+        }
+
+        void replica(Object replica) {
+            this.replica.set(replica);
+        }
+
+        /**
+         * Records that a connection was handed out by a replica rather than the primary.
+         */
+        void replicaRead() {
+            this.replicaRead = true;
+        }
+
+        /**
+         * Pins the scope to {@code replica} unless another thread pinned it first, and returns the pinned one.
+         */
+        Object pin(Object replica) {
+            Object pinned = this.replica.compareAndExchange(null, replica);
+            return pinned == null ? replica : pinned;
+        }
+    }
+
+    /**
+     * Result of {@link #callWith}, with the replica its reads went to, or {@code null} for the primary, and whether
+     * any of them was served by a replica, which may lag behind the primary.
+     */
+    public record Routed<T>(T value, Object routingKey, boolean replicaRead) {
+    }
+
+    private ReplicaRouting() {
+    }
+
+    static void begin(boolean primaryRequired) {
+        SCOPE.set(new Scope(primaryRequired));
+    }
+
+    static void end() {
+        SCOPE.remove();
+    }
+
+    static Scope current() {
+        return SCOPE.get();
+    }
+
+    /**
+     * The replica the current request reads from, or {@code null} before its first read from one. Only meaningful
+     * as a key: loads keyed by it read what the request would.
+     */
+    public static Object routingKey() {
+        Scope scope = SCOPE.get();
+        return scope == null ? null : scope.replica();
+    }
+
+    /**
+     * Calls {@code task} on this thread in a scope of its own, reading from the replica {@code routingKey}, or from
+     * the one chosen at its first read when {@code null}. The thread's own scope is restored afterwards.
+     */
+    public static <T> Routed<T> callWith(Object routingKey, Supplier<T> task) {
+        Scope previous = SCOPE.get();
+        Scope scope = new Scope(false);
+        scope.replica(routingKey);
+        SCOPE.set(scope);
+        try {
+            T value = task.get();
+            return new Routed<>(value, scope.replica(), scope.replicaRead);
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Pins the current request to {@code routingKey} if it has not read from a replica yet, so that what it reads
+     * next is at least as recent as a result it was handed by {@link #callWith}.
+     */
+    public static void adopt(Object routingKey) {
+        Scope scope = SCOPE.get();
+        if (scope != null && routingKey != null) {
+            scope.pin(routingKey);
+        }
+    }
+
+    /**
+     * Wraps {@code task} to run in the calling thread's scope, for work handed to another thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Scope scope = SCOPE.get();
+        return () -> {
+            Scope previous = SCOPE.get();
+            restore(scope);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Scope scope) {
+        if (scope == null) {
+            SCOPE.remove();
+        } else {
+            SCOPE.set(scope);
+        }
+    }
+
+    /**
+     * Whether the current request must read from the primary to see its client's own recent writes.
+     */
+    public static boolean isPrimaryRequired() {
+        Scope scope = SCOPE.get();
+        return scope != null && scope.primaryRequired;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.driver.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a read replica and everything else to the primary. The replica is the one with
+ * the fewest connections in use or awaited, taking turns between equally loaded ones. A replica that fails to hand
+ * out a connection is left out for {@code driver.replica.retry-after} and the next one is tried; with none left the
+ * primary serves the read. Within a request the choice is kept, see {@link ReplicaRouting}, and a request that must
+ * see its client's own writes reads from the primary.
+ * <p>
+ * The transaction is only known to be read-only once it has begun, so this sits behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that asks for the connection at the
+ * first statement. Closing it closes the replica pools, which it owns; the primary is left alone.
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration retryAfter;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile long availableAt = System.nanoTime();
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable(long now) {
+            return now - availableAt >= 0;
+        }
+
+        private int load() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRouting.isPrimaryRequired()) {
+            return source.get(primary);
+        }
+
+        ReplicaRouting.Scope scope = ReplicaRouting.current();
+        Replica replica;
+        if (scope != null && scope.replica() instanceof Replica pinned && pinned.isAvailable(System.nanoTime())) {
+            replica = pinned;
+        } else {
+            replica = choose();
+            // Threads of one request reading at the same time agree on the first choice
+            if (scope != null && replica != null && scope.replica() == null) {
+                replica = (Replica) scope.pin(replica);
+            }
+        }
+        for (int attempt = 0; replica != null && attempt < replicas.size(); attempt++) {
+            try {
+                Connection connection = source.get(replica.dataSource);
+                if (scope != null) {
+                    scope.replica(replica);
+                    scope.replicaRead();
+                }
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} is unavailable, leaving it out for {}: {}", replica.dataSource.getPoolName(), retryAfter, e.toString());
+                replica.availableAt = System.nanoTime() + retryAfter.toNanos();
+                replica = choose();
+            }
+        }
+        return source.get(primary);
+    }
+
+    /**
+     * The available replica with the least load, or {@code null} if every replica is left out.
+     */
+    private Replica choose() {
+        long now = System.nanoTime();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        Replica chosen = null;
+        int chosenLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isAvailable(now)) {
+                int load = replica.load();
+                if (load < chosenLoad) {
+                    chosen = replica;
+                    chosenLoad = load;
+                }
+            }
+        }
+        return chosen;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.driver.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Opens the {@link ReplicaRouting} scope of each request. A client, identified like in
+ * {@link AdmissionControlFilter}, that sent a write within {@code driver.replica.read-your-writes} has its reads
+ * served by the primary. The write is remembered before it runs, so that no read can overtake it. Clients are
+ * remembered per instance; behind a load balancer this holds for clients that stick to one instance. Runs
+ * innermost, inside {@link AdmissionControlFilter}.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@EnableConfigurationProperties({ReplicaProperties.class, AdmissionControlProperties.class})
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final ReplicaProperties properties;
+    private final AdmissionControlProperties admissionControlProperties;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaRoutingFilter(ReplicaProperties properties, AdmissionControlProperties admissionControlProperties) {
+        this.properties = properties;
+        this.admissionControlProperties = admissionControlProperties;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterWrite(properties.readYourWrites())
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return properties.urls().isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean primaryRequired = false;
+        if (!properties.readYourWrites().isZero()) {
+            String client = AdmissionControlFilter.clientKey(request, admissionControlProperties);
+            if (READ_METHODS.contains(request.getMethod())) {
+                primaryRequired = recentWriters.getIfPresent(client) != null;
+            } else {
+                recentWriters.put(client, Boolean.TRUE);
+                primaryRequired = true;
+            }
+        }
+
+        ReplicaRouting.begin(primaryRequired);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.end();
+        }
+    }
+}
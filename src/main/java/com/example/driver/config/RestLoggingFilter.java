@@ -1,42 +1,117 @@
 package com.example.driver.config;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Logs one access line per request and, in {@link RestLoggingProperties.Mode#BODY} mode, the start of
+ * the response body for a sample of requests. See {@link RestLoggingProperties} for the settings. Runs outside
+ * {@link AdmissionControlFilter} so that rejected requests are logged as well.
+ */
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@EnableConfigurationProperties(RestLoggingProperties.class)
 public class RestLoggingFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(RestLoggingFilter.class);
 
+    private final RestLoggingProperties properties;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public RestLoggingFilter(RestLoggingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return properties.mode() == RestLoggingProperties.Mode.NONE
+                || !logger.isInfoEnabled()
+                || !matches(properties.include(), path)
+                || matches(properties.exclude(), path);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        long start = System.nanoTime();
+        BodyCapturingResponseWrapper capture = shouldCaptureBody(request)
+                ? new BodyCapturingResponseWrapper(response, (int) Math.min(properties.maxBodySize().toBytes(), Integer.MAX_VALUE))
+                : null;
+
+        try {
+            filterChain.doFilter(request, capture == null ? response : capture);
+        } finally {
+            if (isAsyncStarted(request)) {
+                // Streamed responses are written after this filter returns; log once they are done
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start, capture);
+                    }
 
-        filterChain.doFilter(request, responseWrapper);
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
 
-        byte[] content = responseWrapper.getContentAsByteArray();
-        String responseBody = getStringValue(content, response.getCharacterEncoding());
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
 
-        logger.info("METHOD = {}; REQUESTURI = {}", request.getMethod(), request.getRequestURI());
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response, start, capture);
+            }
+        }
+    }
+
+    private boolean shouldCaptureBody(HttpServletRequest request) {
+        return properties.mode() == RestLoggingProperties.Mode.BODY
+                && !matches(properties.bodyExclude(), request.getRequestURI())
+                && ThreadLocalRandom.current().nextDouble() < properties.sampleRate();
+    }
 
-        logger.info("RESPONSE = {}", responseBody);
+    private void log(HttpServletRequest request, HttpServletResponse response, long start, BodyCapturingResponseWrapper capture) {
+        logger.info("METHOD = {}; REQUESTURI = {}; STATUS = {}; DURATION = {} ms", request.getMethod(), request.getRequestURI(),
+                response.getStatus(), (System.nanoTime() - start) / 1_000_000);
 
-        responseWrapper.copyBodyToResponse();
+        if (capture != null) {
+            String responseBody = capture.getCapturedBody();
+            if (capture.getBodySize() > properties.maxBodySize().toBytes()) {
+                logger.info("RESPONSE = {}... ({} bytes)", responseBody, capture.getBodySize());
+            } else {
+                logger.info("RESPONSE = {}", responseBody);
+            }
+        }
     }
 
-    private String getStringValue(byte[] contentAsByteArray, String characterEncoding) throws UnsupportedEncodingException {
-        return new String(contentAsByteArray, characterEncoding);
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -0,0 +1,36 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * Settings for {@link RestLoggingFilter}. Paths are Ant-style patterns matched against the request URI.
+ *
+ * @param mode        what is logged for a matching request
+ * @param include     paths that are logged at all
+ * @param exclude     paths that are never logged, even if included
+ * @param bodyExclude paths that only get the access line, even in {@link Mode#BODY} mode
+ * @param maxBodySize largest part of a response body that is captured; the rest is passed through unlogged
+ * @param sampleRate  fraction of requests, between 0 and 1, whose body is captured
+ */
+@ConfigurationProperties(prefix = "driver.rest-logging")
+public record RestLoggingProperties(
+        @DefaultValue("access") Mode mode,
+        @DefaultValue("/**") List<String> include,
+        @DefaultValue List<String> exclude,
+        @DefaultValue({"/api/driver/all", "/api/driver/stream", "/api/driver/bulk/**", "/api/driver/snapshot"}) List<String> bodyExclude,
+        @DefaultValue("4KB") DataSize maxBodySize,
+        @DefaultValue("0.01") double sampleRate
+) {
+    public enum Mode {
+        /** Nothing is logged. */
+        NONE,
+        /** Method, URI, status and latency; the response is never buffered. */
+        ACCESS,
+        /** The access line plus the start of the response body for sampled requests. */
+        BODY
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param directory   where snapshot files are written; on a persistent disk a restart keeps serving the files of an unchanged table
+ * @param deleteAfter how long a replaced snapshot file stays on disk, so downloads that were handed it before it was
+ *                    replaced, including those Tomcat sends after the request returns, can still open it
+ */
+@ConfigurationProperties(prefix = "driver.snapshot")
+public record SnapshotProperties(
+        @DefaultValue("data/snapshots") Path directory,
+        @DefaultValue("10m") Duration deleteAfter
+) {
+}
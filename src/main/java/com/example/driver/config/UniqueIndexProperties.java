@@ -0,0 +1,10 @@
+package com.example.driver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "driver.unique-index")
+public record UniqueIndexProperties(
+        @DefaultValue("false") boolean enabled
+) {
+}
@@ -0,0 +1,112 @@
+package com.example.driver.controller;
+
+import com.example.driver.config.BulkProperties;
+import com.example.driver.dto.BulkResultDTO;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.service.DriverBulkService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Bulk variants of the driver write endpoints. Every item gets its own result, so one bad row does
+ * not fail the rest of the request. JSON arrays are capped at {@code driver.bulk.max-items};
+ * NDJSON bodies are read and answered batch by batch and have no size limit.
+ */
+@Log4j2
+@RestController
+@RequestMapping("/api/driver/bulk")
+@RequiredArgsConstructor
+public class DriverBulkController {
+    private final DriverBulkService driverBulkService;
+    private final BulkProperties bulkProperties;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkResultDTO>> createDrivers(@RequestBody List<DriverDTO> driverDTOs) {
+        checkSize(driverDTOs);
+        return ResponseEntity.ok().body(driverBulkService.createDrivers(driverDTOs));
+    }
+
+    @PostMapping(value = "", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createDrivers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamBulk(DriverDTO.class, request, response, driverBulkService::createBatch);
+    }
+
+    @PutMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkResultDTO>> updateDrivers(@RequestBody List<DriverDTO> driverDTOs) {
+        checkSize(driverDTOs);
+        return ResponseEntity.ok().body(driverBulkService.updateDrivers(driverDTOs));
+    }
+
+    @PutMapping(value = "", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void updateDrivers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamBulk(DriverDTO.class, request, response, driverBulkService::updateBatch);
+    }
+
+    @DeleteMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkResultDTO>> deleteDrivers(@RequestBody List<Integer> ids) {
+        checkSize(ids);
+        return ResponseEntity.ok().body(driverBulkService.deleteDrivers(ids));
+    }
+
+    @DeleteMapping(value = "", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void deleteDrivers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamBulk(Integer.class, request, response, driverBulkService::deleteBatch);
+    }
+
+    private void checkSize(List<?> items) {
+        if (items.size() > bulkProperties.maxItems()) {
+            throw new BadRequestException("Bulk request exceeds " + bulkProperties.maxItems()
+                    + " items, send it as " + MediaType.APPLICATION_NDJSON_VALUE + " instead");
+        }
+    }
+
+    private <T> void streamBulk(Class<T> type, HttpServletRequest request, HttpServletResponse response,
+                                BiFunction<List<T>, Integer, List<BulkResultDTO>> batchWriter) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(request.getInputStream());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            List<T> batch = new ArrayList<>(bulkProperties.batchSize());
+            int offset = 0;
+            while (items.hasNextValue()) {
+                batch.add(items.nextValue());
+                if (batch.size() == bulkProperties.batchSize()) {
+                    writeResults(generator, batchWriter.apply(batch, offset));
+                    offset += batch.size();
+                    batch = new ArrayList<>(bulkProperties.batchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeResults(generator, batchWriter.apply(batch, offset));
+                offset += batch.size();
+            }
+            log.info("Bulk {} {} processed {} items", request.getMethod(), request.getRequestURI(), offset);
+        }
+    }
+
+    private void writeResults(JsonGenerator generator, List<BulkResultDTO> results) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        for (BulkResultDTO result : results) {
+            writer.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
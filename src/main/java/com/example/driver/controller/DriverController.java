@@ -1,8 +1,20 @@
 package com.example.driver.controller;
 
+import com.example.driver.config.MessageFormatConfig;
+import com.example.driver.dto.DriverChangePageDTO;
 import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.dto.DriverPageDTO;
+import com.example.driver.dto.DriverSearchDTO;
 import com.example.driver.exception.NotFoundException;
+import com.example.driver.exception.PreconditionFailedException;
+import com.example.driver.service.DriverChangeFeed;
 import com.example.driver.service.DriverService;
+import com.example.driver.service.IdempotencyStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -11,8 +23,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Log4j2
@@ -20,30 +40,148 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/driver")
 @RequiredArgsConstructor
 public class DriverController {
+    private static final int STREAM_FLUSH_INTERVAL = 1000;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final DriverService driverService;
+    private final DriverChangeFeed driverChangeFeed;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<DriverDTO> getDriverById(@PathVariable("id") Integer id) {
         DriverDTO driverDTO = driverService.getDriverById(id)
                 .orElseThrow(() -> new NotFoundException("Driver with ID " + id + " not found"));
-        return ResponseEntity.ok().body(driverDTO);
+        // A matching If-None-Match turns this into a 304 before the body is serialized
+        return ResponseEntity.ok().eTag(DriverETag.of(driverDTO)).body(driverDTO);
+    }
+
+    @GetMapping(value = "/license/{licenseNumber}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverDTO> getDriverByLicenseNumber(@PathVariable("licenseNumber") String licenseNumber) {
+        DriverDTO driverDTO = driverService.getDriverByLicenseNumber(licenseNumber)
+                .orElseThrow(() -> new NotFoundException("Driver with License Number " + licenseNumber + " not found"));
+        return ResponseEntity.ok().eTag(DriverETag.of(driverDTO)).body(driverDTO);
+    }
+
+    @GetMapping(value = "/vehicle/{vehicleNumber}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverDTO> getDriverByVehicleNumber(@PathVariable("vehicleNumber") String vehicleNumber) {
+        DriverDTO driverDTO = driverService.getDriverByVehicleNumber(vehicleNumber)
+                .orElseThrow(() -> new NotFoundException("Driver with Vehicle Number " + vehicleNumber + " not found"));
+        return ResponseEntity.ok().eTag(DriverETag.of(driverDTO)).body(driverDTO);
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, MessageFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<DriverDTO>> getAllDrivers(@RequestParam(value = "fields", required = false) String fields,
+                                                         WebRequest webRequest) {
+        Set<DriverField> selectedFields = DriverField.parse(fields);
+        // The table version answers If-None-Match without reading any driver rows
+        String eTag = DriverETag.ofTable(driverService.getTableVersion(), selectedFields);
+        // The same version is served as JSON, CBOR or Smile, so caches must key it on Accept as well
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        List<DriverDTO> driverDTOs = driverService.getAllDrivers(selectedFields);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(driverDTOs);
+    }
+
+    @GetMapping(value = "/page", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, MessageFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<DriverPageDTO> getDriverPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "size", defaultValue = "100") int size,
+                                                       @RequestParam(value = "fields", required = false) String fields) {
+        return ResponseEntity.ok().body(driverService.getDriverPage(cursor, size, DriverField.parse(fields)));
+    }
+
+    /**
+     * Prefix search on name, vehicle model, email domain and plate. Filters combine with AND; results are sorted
+     * by {@code id}, {@code name} or {@code vehicleModel} and paged with the returned cursor.
+     */
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, MessageFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<DriverPageDTO> searchDrivers(@RequestParam(value = "name", required = false) String name,
+                                                       @RequestParam(value = "vehicleModel", required = false) String vehicleModel,
+                                                       @RequestParam(value = "emailDomain", required = false) String emailDomain,
+                                                       @RequestParam(value = "plate", required = false) String plate,
+                                                       @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "size", defaultValue = "100") int size,
+                                                       @RequestParam(value = "fields", required = false) String fields) {
+        DriverSearchDTO filter = DriverSearchDTO.builder()
+                .name(name)
+                .vehicleModel(vehicleModel)
+                .emailDomain(emailDomain)
+                .plate(plate)
+                .build();
+        return ResponseEntity.ok().body(driverService.searchDrivers(filter, sort, cursor, size, DriverField.parse(fields)));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDrivers(@RequestParam(value = "fields", required = false) String fields) {
+        Set<DriverField> selectedFields = DriverField.parse(fields);
+        StreamingResponseBody body = outputStream -> {
+            // Flush in batches rather than after every row
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                driverService.streamAllDrivers(selectedFields, driverDTO -> {
+                    try {
+                        writer.writeValue(generator, driverDTO);
+                        generator.writeRaw('\n');
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
-    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<DriverDTO>> getAllDrivers() {
-        List<DriverDTO> driverDTOs = driverService.getAllDrivers();
-        return ResponseEntity.ok().body(driverDTOs);
+    /**
+     * Changes after sequence number {@code since}, oldest first. A client that loaded {@code /all} starts from
+     * the version in its ETag and then keeps passing back {@code nextSince}.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverChangePageDTO> getChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                                          @RequestParam(value = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok().body(driverService.getChanges(since, size));
     }
 
-    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<DriverDTO>> getDriverByIds(@RequestParam(value = "id", required = false) List<Integer> ids) {
-        List<DriverDTO> driverDTOList = driverService.getDriverByIds(ids);
-        List<Integer> returnedIds = driverDTOList
+    /**
+     * Server-sent events with one {@code driver-change} event per change, whose id is its sequence number. Starts
+     * after {@code since}, or after {@code Last-Event-ID} when an EventSource reconnects, or else at the current version.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "since", required = false) Long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : since != null ? since : driverService.getTableVersion();
+        SseEmitter emitter = new SseEmitter();
+        DriverChangeFeed.Subscription subscription = driverChangeFeed.subscribe(from, change -> emitter.send(SseEmitter.event()
+                .id(String.valueOf(change.seq()))
+                .name("driver-change")
+                .data(change, MediaType.APPLICATION_JSON)));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, MessageFormatConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<DriverDTO>> getDriverByIds(@RequestParam(value = "id", required = false) List<Integer> ids,
+                                                          @RequestParam(value = "fields", required = false) String fields) {
+        Set<DriverField> selectedFields = DriverField.parse(fields);
+        List<Integer> requestedIds = ids == null ? List.of() : ids;
+        List<DriverDTO> driverDTOList = driverService.getDriverByIds(requestedIds);
+        Set<Integer> returnedIds = driverDTOList
                 .stream()
                 .map(DriverDTO::id)
-                .toList();
+                .collect(Collectors.toSet());
 
-        List<Integer> missingIds = ids.stream()
+        List<Integer> missingIds = requestedIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
                 .filter(id -> !returnedIds.contains(id))
                 .toList();
 
@@ -53,30 +191,69 @@ public class DriverController {
         }
 
         log.info("X-MISSING-SET {}", missingIds);
-        return ResponseEntity.ok().headers(headers).body(driverDTOList);
+        // Served from the cache, which holds whole drivers; only the response is narrowed
+        return ResponseEntity.ok().headers(headers).body(driverDTOList.stream()
+                .map(driver -> DriverField.retain(driver, selectedFields))
+                .toList());
     }
 
+    /**
+     * With an {@code Idempotency-Key} a retried request gets the first attempt's response, marked with
+     * {@code Idempotent-Replayed: true}, without creating or checking the driver again.
+     */
     @PostMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<DriverDTO> createDriver(@Valid @RequestBody DriverDTO driverDTO) {
+    public ResponseEntity<DriverDTO> createDriver(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                                  @Valid @RequestBody DriverDTO driverDTO) {
+        if (idempotencyKey == null) {
+            return create(driverDTO);
+        }
+        return idempotencyStore.execute(idempotencyKey, driverDTO, () -> create(driverDTO),
+                response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders())
+                        .header(IDEMPOTENT_REPLAYED, "true")
+                        .body(response.getBody()));
+    }
+
+    private ResponseEntity<DriverDTO> create(DriverDTO driverDTO) {
         return driverService.createDriver(driverDTO)
-                .map(driver -> ResponseEntity.status(HttpStatus.CREATED).body(driver))
+                .map(driver -> ResponseEntity.status(HttpStatus.CREATED).eTag(DriverETag.of(driver)).body(driver))
                 .orElse(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
     }
 
+    /**
+     * With {@code If-Match} naming driver ETags the update is a single conditional statement; a driver changed
+     * since answers 412. {@code If-Match: *} only requires the driver to exist.
+     */
     @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<DriverDTO> updateDriver(@PathVariable("id") Integer id, @Valid @RequestBody DriverDTO driverDTO) {
-        return driverService.updateDriver(id, driverDTO)
-                .map(driver -> ResponseEntity.status(HttpStatus.OK).body(driver))
-                .orElseThrow(() -> new NotFoundException("Driver with ID " + id + " not found"));
+    public ResponseEntity<DriverDTO> updateDriver(@PathVariable("id") Integer id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @Valid @RequestBody DriverDTO driverDTO) {
+        Optional<DriverDTO> updated = ifMatch == null || DriverETag.isWildcard(ifMatch)
+                ? driverService.updateDriver(id, driverDTO)
+                : driverService.updateDriver(id, driverDTO, DriverETag.versions(id, ifMatch));
+        return updated
+                .map(driver -> ResponseEntity.status(HttpStatus.OK).eTag(DriverETag.of(driver)).body(driver))
+                .orElseThrow(() -> notFoundOrPreconditionFailed(id, ifMatch));
     }
 
     @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> deleteDriver(@PathVariable("id") Integer id) {
-        DriverDTO driverDTO = driverService.getDriverById(id)
-                .orElseThrow(() -> new NotFoundException("Driver with ID " + id + " not found"));
-
-        driverService.deleteDriver(id);
+    public ResponseEntity<String> deleteDriver(@PathVariable("id") Integer id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null || DriverETag.isWildcard(ifMatch)) {
+            if (!driverService.deleteDriver(id)) {
+                throw notFoundOrPreconditionFailed(id, ifMatch);
+            }
+        } else if (!driverService.deleteDriver(id, DriverETag.versions(id, ifMatch))) {
+            throw new NotFoundException("Driver with ID " + id + " not found");
+        }
 
         return ResponseEntity.status(HttpStatus.OK).body("Driver with ID " + id + " successfully deleted.");
     }
+
+    private static RuntimeException notFoundOrPreconditionFailed(Integer id, String ifMatch) {
+        // If-Match: * asks for the driver to exist, so its absence fails the precondition
+        return ifMatch != null && DriverETag.isWildcard(ifMatch)
+                ? new PreconditionFailedException("Driver with ID " + id + " does not exist")
+                : new NotFoundException("Driver with ID " + id + " not found");
+    }
 }
@@ -0,0 +1,66 @@
+package com.example.driver.controller;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Entity tags for drivers. A driver's tag combines its id and row version, so it changes on every
+ * update and never repeats for another driver served from the same URL (e.g. by license number).
+ * The collection tag wraps the driver table version.
+ */
+public final class DriverETag {
+    private static final String WILDCARD = "*";
+
+    private DriverETag() {
+    }
+
+    public static String of(DriverDTO driverDTO) {
+        return "\"" + driverDTO.id() + "-" + driverDTO.version() + "\"";
+    }
+
+    /**
+     * A selection of fields is a different representation, so it gets its own tag. The tag is weak because the
+     * same version is also served as CBOR, Smile or gzipped, and Tomcat only compresses responses without a
+     * strong tag; If-None-Match compares weakly, so clients still sending the strong form keep matching.
+     */
+    public static String ofTable(long tableVersion, Set<DriverField> fields) {
+        String tag = "drivers-" + tableVersion;
+        if (!fields.containsAll(DriverField.ALL)) {
+            tag += fields.stream().map(DriverField::property).collect(Collectors.joining(".", ".", ""));
+        }
+        return "W/\"" + tag + "\"";
+    }
+
+    public static boolean isWildcard(String ifMatch) {
+        return WILDCARD.equals(ifMatch.trim());
+    }
+
+    /**
+     * Versions of driver {@code id} named by an {@code If-Match} header. If-Match uses strong comparison,
+     * so weak tags and tags of other drivers are ignored.
+     */
+    public static List<Long> versions(Integer id, String ifMatch) {
+        String prefix = id + "-";
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String value = tag.substring(1, tag.length() - 1);
+            if (value.startsWith(prefix)) {
+                try {
+                    versions.add(Long.valueOf(value.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours, so it cannot match
+                }
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.driver.controller;
+
+import com.example.driver.dto.DriverImportDTO;
+import com.example.driver.dto.DriverImportErrorPageDTO;
+import com.example.driver.exception.NotFoundException;
+import com.example.driver.model.DriverImport;
+import com.example.driver.service.DriverImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Background imports of large driver files. The file is the request body, either CSV with a header row naming
+ * the driver properties or NDJSON; the job answers 202 with its location, where progress and rejected rows
+ * can be polled while it runs.
+ */
+@RestController
+@RequestMapping("/api/driver/imports")
+@RequiredArgsConstructor
+public class DriverImportController {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final DriverImportService driverImportService;
+
+    @PostMapping(value = "", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverImportDTO> importCsv(HttpServletRequest request) throws IOException {
+        return accepted(driverImportService.submit(DriverImport.Format.CSV, request.getInputStream()));
+    }
+
+    @PostMapping(value = "", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverImportDTO> importNdjson(HttpServletRequest request) throws IOException {
+        return accepted(driverImportService.submit(DriverImport.Format.NDJSON, request.getInputStream()));
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverImportDTO> getImport(@PathVariable("id") String id) {
+        return driverImportService.getImport(id)
+                .map(driverImport -> ResponseEntity.ok().body(driverImport))
+                .orElseThrow(() -> notFound(id));
+    }
+
+    /**
+     * Rejected rows after row {@code after}, in file order. Keep passing back {@code nextAfter} to page through them.
+     */
+    @GetMapping(value = "/{id}/errors", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverImportErrorPageDTO> getErrors(@PathVariable("id") String id,
+                                                              @RequestParam(value = "after", defaultValue = "0") long after,
+                                                              @RequestParam(value = "size", defaultValue = "100") int size) {
+        return driverImportService.getErrors(id, after, size)
+                .map(errors -> ResponseEntity.ok().body(errors))
+                .orElseThrow(() -> notFound(id));
+    }
+
+    /**
+     * Restarts a failed import after its last committed chunk.
+     */
+    @PostMapping(value = "/{id}/resume", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DriverImportDTO> resume(@PathVariable("id") String id) {
+        return accepted(driverImportService.resume(id).orElseThrow(() -> notFound(id)));
+    }
+
+    private static ResponseEntity<DriverImportDTO> accepted(DriverImportDTO driverImport) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/driver/imports/" + driverImport.id()))
+                .body(driverImport);
+    }
+
+    private static NotFoundException notFound(String id) {
+        return new NotFoundException("Import with ID " + id + " not found");
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.driver.controller;
+
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.model.DriverImport;
+import com.example.driver.service.DriverSnapshotService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Downloads of the whole driver table as a gzipped CSV or NDJSON snapshot. The file is only written when the
+ * table has changed; every other download is sent straight from it. Single byte ranges are supported, so an
+ * interrupted download can resume where it stopped.
+ */
+@RestController
+@RequestMapping("/api/driver/snapshot")
+@RequiredArgsConstructor
+public class DriverSnapshotController {
+    public static final String APPLICATION_GZIP_VALUE = "application/gzip";
+
+    // Set by Tomcat when the connector can send files itself; the file then goes from the page cache to the socket
+    // without being copied through the JVM
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DriverSnapshotService driverSnapshotService;
+
+    @GetMapping(value = "", produces = APPLICATION_GZIP_VALUE)
+    public void getSnapshot(@RequestParam(value = "format", defaultValue = "csv") String format,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DriverSnapshotService.Snapshot snapshot = driverSnapshotService.getSnapshot(parseFormat(format));
+        String eTag = "\"drivers-" + snapshot.version() + "-" + snapshot.format().name().toLowerCase(Locale.ROOT) + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return;
+        }
+
+        response.setContentType(APPLICATION_GZIP_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(snapshot.file().getFileName().toString())
+                .build()
+                .toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long size = snapshot.size();
+        long start = 0;
+        long end = size - 1;
+        HttpRange range = range(request, eTag);
+        if (range != null) {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            if (start >= size || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        response.setContentLengthLong(end - start + 1);
+
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            send(snapshot.file(), start, end, request, response);
+        }
+    }
+
+    private static DriverImport.Format parseFormat(String format) {
+        try {
+            return DriverImport.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown format " + format + ", expected csv or ndjson");
+        }
+    }
+
+    /**
+     * The requested range, or null for the whole file. Several ranges, a malformed header or an {@code If-Range}
+     * naming another version get the whole file, as a server is free to answer any of them that way.
+     */
+    private static HttpRange range(HttpServletRequest request, String eTag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (header == null || (ifRange != null && !ifRange.equals(eTag))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bytes {@code start} to {@code end} of the file, both inclusive. Without sendfile support the file is still
+     * copied channel to channel rather than through a read buffer.
+     */
+    private static void send(Path file, long start, long end, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position <= end; ) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.driver.controller;
+
+import com.example.driver.config.MessageFormatConfig;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.ErrorMessage;
+import com.example.driver.exception.NotFoundException;
+import com.example.driver.exception.UniqueException;
+import com.example.driver.service.ReactiveDriverService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code /api/driver} contract served by {@link ReactiveDriverService} as WebFlux functional routes, run on
+ * Netty event loops by {@link com.example.driver.config.ReactiveServerConfig} rather than by Spring MVC.
+ * {@code /all} streams with backpressure as a JSON array or as NDJSON. Errors use the same bodies as
+ * {@link com.example.driver.exception.RestResponseEntityExceptionHandler}.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class ReactiveDriverController {
+    private static final String DRIVER_URL = "/api/reactive/driver";
+    // JSON first, so a client accepting anything gets the same as from the blocking endpoint
+    private static final List<MediaType> ALL_DRIVERS_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType(MessageFormatConfig.APPLICATION_SMILE_VALUE), MediaType.APPLICATION_NDJSON);
+
+    private final ReactiveDriverService reactiveDriverService;
+    private final Validator validator;
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .path(DRIVER_URL, builder -> builder
+                        .GET("/all", this::getAllDrivers)
+                        .GET("/{id}", this::getDriverById)
+                        .GET("", this::getDriverByIds)
+                        .POST("", this::createDriver)
+                        .PUT("/{id}", this::updateDriver)
+                        .DELETE("/{id}", this::deleteDriver)
+                        // Exceptions thrown while a handler builds its Mono, such as for an invalid id, become error
+                        // signals for the handlers below
+                        .filter((request, next) -> Mono.defer(() -> next.handle(request))))
+                .onError(NotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, "Not found", e))
+                .onError(BadRequestException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, "Bad request", e))
+                .onError(UniqueException.class, (e, request) -> error(HttpStatus.CONFLICT, "Unique Exception", e))
+                // Unreadable or unsupported bodies, as reported by the codecs
+                .onError(ResponseStatusException.class, (e, request) -> error(((ResponseStatusException) e).getStatusCode(), "Bad request", e))
+                .build();
+    }
+
+    private Mono<ServerResponse> getDriverById(ServerRequest request) {
+        Integer id = pathId(request);
+        return reactiveDriverService.getDriverById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Driver with ID " + id + " not found")))
+                .flatMap(driver -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(driver));
+    }
+
+    private Mono<ServerResponse> getAllDrivers(ServerRequest request) {
+        MediaType mediaType = negotiate(request, ALL_DRIVERS_TYPES);
+        if (mediaType == null) {
+            return ServerResponse.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        if (mediaType.equals(MediaType.APPLICATION_JSON) || mediaType.equals(MediaType.APPLICATION_NDJSON)) {
+            // The Jackson encoder writes a Flux as it arrives, JSON joined into one array
+            return ServerResponse.ok().contentType(mediaType).body(reactiveDriverService.getAllDrivers(), DriverDTO.class);
+        }
+        // The CBOR encoder cannot encode a Flux, and the Smile one would join it with JSON array separators
+        return reactiveDriverService.getAllDrivers()
+                .collectList()
+                .flatMap(drivers -> ServerResponse.ok().contentType(mediaType).bodyValue(drivers));
+    }
+
+    private Mono<ServerResponse> getDriverByIds(ServerRequest request) {
+        List<Integer> requestedIds = new ArrayList<>();
+        for (String id : request.queryParams().getOrDefault("id", List.of())) {
+            for (String part : id.split(",")) {
+                requestedIds.add(part.isBlank() ? null : parseId(part.trim()));
+            }
+        }
+        return reactiveDriverService.getDriverByIds(requestedIds)
+                .collectList()
+                .flatMap(driverDTOList -> {
+                    Set<Integer> returnedIds = driverDTOList.stream()
+                            .map(DriverDTO::id)
+                            .collect(Collectors.toSet());
+                    String missingIds = requestedIds.stream()
+                            .filter(Objects::nonNull)
+                            .distinct()
+                            .filter(id -> !returnedIds.contains(id))
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(","));
+
+                    ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+                    if (!missingIds.isEmpty()) {
+                        response.header("X-MISSING-SET", missingIds);
+                    }
+                    return response.bodyValue(driverDTOList);
+                });
+    }
+
+    private Mono<ServerResponse> createDriver(ServerRequest request) {
+        return withValidBody(request, driverDTO -> reactiveDriverService.createDriver(driverDTO)
+                .flatMap(driver -> ServerResponse.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON).bodyValue(driver)));
+    }
+
+    private Mono<ServerResponse> updateDriver(ServerRequest request) {
+        Integer id = pathId(request);
+        return withValidBody(request, driverDTO -> reactiveDriverService.updateDriver(id, driverDTO)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Driver with ID " + id + " not found")))
+                .flatMap(driver -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(driver)));
+    }
+
+    private Mono<ServerResponse> deleteDriver(ServerRequest request) {
+        Integer id = pathId(request);
+        return reactiveDriverService.deleteDriver(id)
+                .flatMap(deleted -> {
+                    if (!deleted) {
+                        return Mono.error(new NotFoundException("Driver with ID " + id + " not found"));
+                    }
+                    return ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue("Driver with ID " + id + " successfully deleted.");
+                });
+    }
+
+    /**
+     * Reads and validates the {@link DriverDTO} body, answering 400 with the field errors like
+     * {@code @Valid @RequestBody} does on the blocking endpoint.
+     */
+    private Mono<ServerResponse> withValidBody(ServerRequest request, Function<DriverDTO, Mono<ServerResponse>> handler) {
+        return request.bodyToMono(DriverDTO.class)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Request body is required")))
+                .flatMap(driverDTO -> {
+                    Set<ConstraintViolation<DriverDTO>> violations = validator.validate(driverDTO);
+                    if (violations.isEmpty()) {
+                        return handler.apply(driverDTO);
+                    }
+
+                    Map<String, String> errors = new HashMap<>();
+                    violations.forEach(violation -> {
+                        String field = violation.getPropertyPath().toString();
+                        log.error(String.format("Validation error for field '%s': %s", field, violation.getMessage()));
+                        errors.put(field, violation.getMessage());
+                    });
+                    return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(errors);
+                });
+    }
+
+    private static Integer pathId(ServerRequest request) {
+        return parseId(request.pathVariable("id"));
+    }
+
+    private static Integer parseId(String id) {
+        try {
+            return Integer.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid driver id: " + id);
+        }
+    }
+
+    /**
+     * First of {@code producible} compatible with the most preferred {@code Accept} entry, or {@code null} if none is.
+     */
+    private static MediaType negotiate(ServerRequest request, List<MediaType> producible) {
+        List<MediaType> accepted = new ArrayList<>(request.headers().accept());
+        if (accepted.isEmpty()) {
+            return producible.get(0);
+        }
+        // Orders by quality first for media types
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptable : accepted) {
+            for (MediaType mediaType : producible) {
+                if (acceptable.isCompatibleWith(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Mono<ServerResponse> error(HttpStatusCode status, String label, Throwable e) {
+        log.error(label + ": {}", e);
+        String message = e instanceof ResponseStatusException statusException ? statusException.getReason() : e.getMessage();
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ErrorMessage.builder().message(message).build());
+    }
+}
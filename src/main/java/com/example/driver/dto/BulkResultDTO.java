@@ -0,0 +1,17 @@
+package com.example.driver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+import java.util.Map;
+
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkResultDTO(
+        int index,
+        Integer id,
+        int status,
+        DriverDTO driver,
+        Map<String, String> errors
+) {
+}
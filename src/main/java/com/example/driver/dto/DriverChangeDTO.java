@@ -0,0 +1,18 @@
+package com.example.driver.dto;
+
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * A change to one driver. {@code driver} is its current state, or null if it has been deleted since.
+ */
+@Builder
+public record DriverChangeDTO(
+        long seq,
+        String operation,
+        Integer driverId,
+        Instant changedAt,
+        DriverDTO driver
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.driver.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record DriverChangePageDTO(
+        List<DriverChangeDTO> changes,
+        long nextSince
+) {
+}
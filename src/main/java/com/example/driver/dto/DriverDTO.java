@@ -1,15 +1,19 @@
 package com.example.driver.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Builder;
 
+// Every column is NOT NULL, so a null property was not selected with fields= and is left out
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record DriverDTO(
         Integer id,
         @NotBlank(message = "Name is required") String name,
         @NotBlank(message = "Email is required") String email,
         @NotBlank(message = "License Number is required") String licenseNumber,
         @NotBlank(message = "Vehicle Model is required") String vehicleModel,
-        @NotBlank(message = "Vehicle Number is required") String vehicleNumber
+        @NotBlank(message = "Vehicle Number is required") String vehicleNumber,
+        Long version
 ) {
 }
@@ -0,0 +1,86 @@
+package com.example.driver.dto;
+
+import com.example.driver.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Properties of {@link DriverDTO} a caller can select with {@code fields=}. Each property has the name of the
+ * {@code Driver} attribute it is read from, so a selection maps directly onto the columns to query.
+ */
+public enum DriverField {
+    ID("id", DriverDTO::id, (driver, value) -> driver.id((Integer) value)),
+    NAME("name", DriverDTO::name, (driver, value) -> driver.name((String) value)),
+    EMAIL("email", DriverDTO::email, (driver, value) -> driver.email((String) value)),
+    LICENSE_NUMBER("licenseNumber", DriverDTO::licenseNumber, (driver, value) -> driver.licenseNumber((String) value)),
+    VEHICLE_MODEL("vehicleModel", DriverDTO::vehicleModel, (driver, value) -> driver.vehicleModel((String) value)),
+    VEHICLE_NUMBER("vehicleNumber", DriverDTO::vehicleNumber, (driver, value) -> driver.vehicleNumber((String) value)),
+    VERSION("version", DriverDTO::version, (driver, value) -> driver.version((Long) value));
+
+    public static final Set<DriverField> ALL = Collections.unmodifiableSet(EnumSet.allOf(DriverField.class));
+
+    private final String property;
+    private final Function<DriverDTO, Object> getter;
+    private final BiConsumer<DriverDTO.DriverDTOBuilder, Object> setter;
+
+    DriverField(String property, Function<DriverDTO, Object> getter, BiConsumer<DriverDTO.DriverDTOBuilder, Object> setter) {
+        this.property = property;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public Object get(DriverDTO driver) {
+        return getter.apply(driver);
+    }
+
+    public void set(DriverDTO.DriverDTOBuilder driver, Object value) {
+        setter.accept(driver, value);
+    }
+
+    /**
+     * Parses a comma-separated list of property names. Null or blank selects every field.
+     */
+    public static Set<DriverField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<DriverField> selected = EnumSet.noneOf(DriverField.class);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Unknown field '" + property + "', expected any of " + Arrays.stream(values())
+                            .map(DriverField::property)
+                            .collect(Collectors.joining(", ")))));
+        }
+        if (selected.isEmpty()) {
+            throw new BadRequestException("fields must name at least one field");
+        }
+        return selected;
+    }
+
+    /**
+     * Copy of {@code driver} with only {@code fields} set. Unset properties are left out of the JSON.
+     */
+    public static DriverDTO retain(DriverDTO driver, Set<DriverField> fields) {
+        if (fields.containsAll(ALL)) {
+            return driver;
+        }
+        DriverDTO.DriverDTOBuilder builder = DriverDTO.builder();
+        for (DriverField field : fields) {
+            field.set(builder, field.get(driver));
+        }
+        return builder.build();
+    }
+}
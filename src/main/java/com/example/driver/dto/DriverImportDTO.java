@@ -0,0 +1,27 @@
+package com.example.driver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * An import job. The row counts cover committed chunks only; {@code rowsPerSecond} is the rate at which they
+ * were read, checked and written, excluding time spent queued or stopped.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DriverImportDTO(
+        String id,
+        String format,
+        String status,
+        long rowsRead,
+        long rowsImported,
+        long rowsFailed,
+        double rowsPerSecond,
+        String error,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.driver.dto;
+
+import lombok.Builder;
+
+import java.util.Map;
+
+/**
+ * A rejected import row. {@code row} counts data rows from 1, without the CSV header, and {@code status} is
+ * what the same driver would have got from the bulk API.
+ */
+@Builder
+public record DriverImportErrorDTO(
+        long row,
+        int status,
+        Map<String, String> errors
+) {
+}
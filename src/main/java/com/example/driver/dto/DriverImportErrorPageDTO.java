@@ -0,0 +1,12 @@
+package com.example.driver.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record DriverImportErrorPageDTO(
+        List<DriverImportErrorDTO> errors,
+        long nextAfter
+) {
+}
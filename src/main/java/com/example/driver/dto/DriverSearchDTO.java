@@ -0,0 +1,15 @@
+package com.example.driver.dto;
+
+import lombok.Builder;
+
+/**
+ * Prefix filters for a driver search. Blank filters are ignored; the others must all match.
+ */
+@Builder
+public record DriverSearchDTO(
+        String name,
+        String vehicleModel,
+        String emailDomain,
+        String plate
+) {
+}
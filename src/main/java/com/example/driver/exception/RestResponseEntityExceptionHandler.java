@@ -1,5 +1,6 @@
 package com.example.driver.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -25,12 +26,36 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         return getErrorMessageRequest(HttpStatus.NOT_FOUND, e);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Object> handleBadRequestException(BadRequestException e) {
+        logger.error("Bad request: {}", e);
+        return getErrorMessageRequest(HttpStatus.BAD_REQUEST, e);
+    }
+
     @ExceptionHandler(UniqueException.class)
     public ResponseEntity<Object> handleUniqueException(UniqueException e) {
         logger.error("Unique Exception: {}", e);
         return getErrorMessageRequest(HttpStatus.CONFLICT, e);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException e) {
+        logger.error("Precondition failed: {}", e);
+        return getErrorMessageRequest(HttpStatus.PRECONDITION_FAILED, e);
+    }
+
+    @ExceptionHandler(UnprocessableEntityException.class)
+    public ResponseEntity<Object> handleUnprocessableEntityException(UnprocessableEntityException e) {
+        logger.error("Unprocessable entity: {}", e);
+        return getErrorMessageRequest(HttpStatus.UNPROCESSABLE_ENTITY, e);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        logger.error("Optimistic locking failure: {}", e);
+        return new ResponseEntity<>(ErrorMessage.builder().message("Driver was modified concurrently").build(), HttpStatus.CONFLICT);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
                                                                   HttpHeaders headers,
@@ -1,7 +1,23 @@
 package com.example.driver.exception;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class UniqueException extends RuntimeException {
+    private final List<UniqueField> fields;
+
     public UniqueException(String message) {
         super(message);
+        this.fields = List.of();
+    }
+
+    public UniqueException(Collection<UniqueField> fields) {
+        super(fields.stream().map(UniqueField::getMessage).collect(Collectors.joining(", ")));
+        this.fields = List.copyOf(fields);
+    }
+
+    public List<UniqueField> getFields() {
+        return fields;
     }
 }
@@ -0,0 +1,57 @@
+package com.example.driver.exception;
+
+import com.example.driver.dto.DriverDTO;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Columns of the DRIVER table covered by a UNIQUE constraint, in the order conflicts are reported.
+ */
+public enum UniqueField {
+    LICENSE_NUMBER("licenseNumber", "License Number", "LICENSE_NUMBER"),
+    VEHICLE_NUMBER("vehicleNumber", "Vehicle Number", "VEHICLE_NUMBER"),
+    EMAIL("email", "Email", "EMAIL");
+
+    private final String property;
+    private final String label;
+    private final String column;
+
+    UniqueField(String property, String label, String column) {
+        this.property = property;
+        this.label = label;
+        this.column = column;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String keyOf(DriverDTO driverDTO) {
+        return switch (this) {
+            case LICENSE_NUMBER -> driverDTO.licenseNumber();
+            case VEHICLE_NUMBER -> driverDTO.vehicleNumber();
+            case EMAIL -> driverDTO.email();
+        };
+    }
+
+    public String getMessage() {
+        return label + " already exists";
+    }
+
+    /**
+     * Resolves the columns named in a unique constraint violation raised by the database.
+     * Returns an empty set when the violation is not on one of the unique driver columns.
+     */
+    public static Set<UniqueField> fromViolation(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toUpperCase(Locale.ROOT);
+        Set<UniqueField> fields = EnumSet.noneOf(UniqueField.class);
+        Arrays.stream(values())
+                .filter(field -> message.contains("(" + field.column) || message.contains(field.column + ")"))
+                .forEach(fields::add);
+        return fields;
+    }
+}
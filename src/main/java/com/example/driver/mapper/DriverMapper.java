@@ -27,6 +27,7 @@ public class DriverMapper implements Mapper<Driver, DriverDTO> {
                 .licenseNumber(driver.getLicenseNumber())
                 .vehicleModel(driver.getVehicleModel())
                 .vehicleNumber(driver.getVehicleNumber())
+                .version(driver.getVersion())
                 .build();
     }
 }
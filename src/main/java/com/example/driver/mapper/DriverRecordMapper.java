@@ -0,0 +1,33 @@
+package com.example.driver.mapper;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.model.DriverRecord;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DriverRecordMapper implements Mapper<DriverRecord, DriverDTO> {
+
+    @Override
+    public DriverRecord mapToEntity(DriverDTO driverDTO) {
+        return DriverRecord.builder()
+                .name(driverDTO.name())
+                .email(driverDTO.email())
+                .licenseNumber(driverDTO.licenseNumber())
+                .vehicleModel(driverDTO.vehicleModel())
+                .vehicleNumber(driverDTO.vehicleNumber())
+                .build();
+    }
+
+    @Override
+    public DriverDTO mapToDTO(DriverRecord driver) {
+        return DriverDTO.builder()
+                .id(driver.getId())
+                .name(driver.getName())
+                .email(driver.getEmail())
+                .licenseNumber(driver.getLicenseNumber())
+                .vehicleModel(driver.getVehicleModel())
+                .vehicleNumber(driver.getVehicleNumber())
+                .version(driver.getVersion())
+                .build();
+    }
+}
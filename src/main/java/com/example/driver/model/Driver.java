@@ -12,7 +12,11 @@ import lombok.*;
 @Builder
 @EqualsAndHashCode
 public class Driver {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /** Ids handed out per {@code driver_seq} value; the sequence increments by the same amount. */
+    public static final int ALLOCATION_SIZE = 50;
+
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "driver_seq")
+    @SequenceGenerator(name = "driver_seq", sequenceName = "driver_seq", allocationSize = ALLOCATION_SIZE)
     @Id
     @Column(name = "id")
     private Integer id;
@@ -31,4 +35,12 @@ public class Driver {
 
     @Column(name = "email")
     private String email;
+
+    // Computed by the database from email; only read, for domain search
+    @Column(name = "email_domain", insertable = false, updatable = false)
+    private String emailDomain;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
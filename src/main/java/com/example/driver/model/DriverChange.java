@@ -0,0 +1,49 @@
+package com.example.driver.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * One entry of the driver change log. Only the driver id is kept; readers join the current row.
+ */
+@Entity
+@Table(name = "DRIVER_CHANGE")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DriverChange implements Persistable<Long> {
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "driver_id")
+    private Integer driverId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation")
+    private Operation operation;
+
+    @Column(name = "changed_at")
+    private Instant changedAt;
+
+    @Override
+    public Long getId() {
+        return seq;
+    }
+
+    /**
+     * Entries are assigned their seq up front and never updated, so saving one is always an insert.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.driver.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A bulk import job and its progress. The counters only move when a chunk commits.
+ */
+@Entity
+@Table(name = "DRIVER_IMPORT")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DriverImport {
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @Column(name = "id")
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format")
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private Status status;
+
+    @Column(name = "rows_read")
+    private long rowsRead;
+
+    @Column(name = "rows_imported")
+    private long rowsImported;
+
+    @Column(name = "rows_failed")
+    private long rowsFailed;
+
+    // Time spent reading and writing rows, summed over every run of the job
+    @Column(name = "elapsed_millis")
+    private long elapsedMillis;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,58 @@
+package com.example.driver.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * A row an import rejected, with the reason for each offending field.
+ */
+@Entity
+@Table(name = "DRIVER_IMPORT_ERROR")
+@IdClass(DriverImportError.Key.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DriverImportError implements Persistable<DriverImportError.Key> {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String importId;
+        private long rowNum;
+    }
+
+    @Id
+    @Column(name = "import_id")
+    private String importId;
+
+    @Id
+    @Column(name = "row_num")
+    private long rowNum;
+
+    @Column(name = "status")
+    private int status;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "errors")
+    private Map<String, String> errors;
+
+    @Override
+    public Key getId() {
+        return new Key(importId, rowNum);
+    }
+
+    /**
+     * Errors are written once, in the transaction that commits their chunk, so saving one is always an insert.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.driver.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the DRIVER table, used by the reactive API next to the JPA {@link Driver} entity.
+ */
+@Table("DRIVER")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class DriverRecord {
+    @Id
+    @Column("id")
+    private Integer id;
+
+    @Column("driver_name")
+    private String name;
+
+    @Column("license_number")
+    private String licenseNumber;
+
+    @Column("vehicle_model")
+    private String vehicleModel;
+
+    @Column("vehicle_number")
+    private String vehicleNumber;
+
+    @Column("email")
+    private String email;
+
+    @Version
+    @Column("version")
+    private Long version;
+}
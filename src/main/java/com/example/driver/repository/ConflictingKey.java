@@ -0,0 +1,10 @@
+package com.example.driver.repository;
+
+/**
+ * A unique column value that is already taken, and the driver holding it.
+ */
+public interface ConflictingKey {
+    String getField();
+    String getValue();
+    Integer getId();
+}
@@ -0,0 +1,20 @@
+package com.example.driver.repository;
+
+import com.example.driver.model.DriverChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DriverChangeRepository extends ListCrudRepository<DriverChange, Long> {
+
+    @Query("select c.seq as seq, c.operation as operation, c.changedAt as changedAt, c.driverId as driverId, " +
+            "d.name as name, d.email as email, d.licenseNumber as licenseNumber, d.vehicleModel as vehicleModel, " +
+            "d.vehicleNumber as vehicleNumber, d.version as version " +
+            "from DriverChange c left join Driver d on d.id = c.driverId where c.seq > :since order by c.seq")
+    List<DriverChangeRow> findChangesAfter(@Param("since") long since, Limit limit);
+}
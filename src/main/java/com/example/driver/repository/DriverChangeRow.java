@@ -0,0 +1,21 @@
+package com.example.driver.repository;
+
+import com.example.driver.model.DriverChange;
+
+import java.time.Instant;
+
+/**
+ * A change log entry with the current state of its driver; the driver columns are null once it is deleted.
+ */
+public interface DriverChangeRow {
+    Long getSeq();
+    DriverChange.Operation getOperation();
+    Instant getChangedAt();
+    Integer getDriverId();
+    String getName();
+    String getEmail();
+    String getLicenseNumber();
+    String getVehicleModel();
+    String getVehicleNumber();
+    Long getVersion();
+}
@@ -0,0 +1,14 @@
+package com.example.driver.repository;
+
+import com.example.driver.model.DriverImportError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DriverImportErrorRepository extends ListCrudRepository<DriverImportError, DriverImportError.Key> {
+
+    List<DriverImportError> findByImportIdAndRowNumGreaterThanOrderByRowNum(String importId, long afterRow, Limit limit);
+}
@@ -0,0 +1,26 @@
+package com.example.driver.repository;
+
+import com.example.driver.model.DriverImport;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DriverImportRepository extends ListCrudRepository<DriverImport, String> {
+
+    List<DriverImport> findByStatusIn(Collection<DriverImport.Status> statuses);
+
+    /**
+     * Records the progress of a running import in the transaction that commits its chunk.
+     */
+    @Modifying
+    @Query("update DriverImport i set i.rowsRead = :rowsRead, i.rowsImported = :rowsImported, i.rowsFailed = :rowsFailed, " +
+            "i.elapsedMillis = :elapsedMillis where i.id = :id")
+    void updateProgress(@Param("id") String id, @Param("rowsRead") long rowsRead, @Param("rowsImported") long rowsImported,
+                        @Param("rowsFailed") long rowsFailed, @Param("elapsedMillis") long elapsedMillis);
+}
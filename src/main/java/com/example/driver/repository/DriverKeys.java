@@ -0,0 +1,11 @@
+package com.example.driver.repository;
+
+/**
+ * The unique columns of a driver, without the rest of the row.
+ */
+public interface DriverKeys {
+    Integer getId();
+    String getLicenseNumber();
+    String getVehicleNumber();
+    String getEmail();
+}
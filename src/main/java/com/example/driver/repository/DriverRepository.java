@@ -1,15 +1,148 @@
 package com.example.driver.repository;
 
+import com.example.driver.dto.DriverDTO;
 import com.example.driver.model.Driver;
-import org.springframework.data.repository.ListCrudRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface DriverRepository extends ListCrudRepository<Driver, Integer> {
+public interface DriverRepository extends JpaRepository<Driver, Integer>, DriverSearchRepository {
     Optional<Driver> findById(Integer id);
+    Optional<Driver> findByLicenseNumber(String licenseNumber);
+    Optional<Driver> findByVehicleNumber(String vehicleNumber);
+    List<Driver> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    /**
+     * Returns the names of the unique columns already taken by a driver other than {@code excludeId}.
+     * Each branch is a single unique-index lookup, so all three checks cost one round trip.
+     */
+    @Query("select 'LICENSE_NUMBER' from Driver d where d.licenseNumber = :licenseNumber and (:excludeId is null or d.id <> :excludeId) " +
+            "union all select 'VEHICLE_NUMBER' from Driver d where d.vehicleNumber = :vehicleNumber and (:excludeId is null or d.id <> :excludeId) " +
+            "union all select 'EMAIL' from Driver d where d.email = :email and (:excludeId is null or d.id <> :excludeId)")
+    List<String> findConflictingFields(@Param("licenseNumber") String licenseNumber,
+                                       @Param("vehicleNumber") String vehicleNumber,
+                                       @Param("email") String email,
+                                       @Param("excludeId") Integer excludeId);
+
+    /**
+     * Set-based variant of {@link #findConflictingFields} for bulk writes: every value in the
+     * given collections that is already stored, with the id of the driver holding it.
+     */
+    @Query("select 'LICENSE_NUMBER' as field, d.licenseNumber as value, d.id as id from Driver d where d.licenseNumber in :licenseNumbers " +
+            "union all select 'VEHICLE_NUMBER' as field, d.vehicleNumber as value, d.id as id from Driver d where d.vehicleNumber in :vehicleNumbers " +
+            "union all select 'EMAIL' as field, d.email as value, d.id as id from Driver d where d.email in :emails")
+    List<ConflictingKey> findConflictingKeys(@Param("licenseNumbers") Collection<String> licenseNumbers,
+                                             @Param("vehicleNumbers") Collection<String> vehicleNumbers,
+                                             @Param("emails") Collection<String> emails);
+
+    /**
+     * Updates the driver and bumps its version in one statement, then reads back the new version of the row it
+     * has just locked. Empty if the driver does not exist. Uniqueness is left to the constraints on the table.
+     */
+    @Transactional
+    default Optional<Long> updateReturningVersion(Integer id, String name, String licenseNumber, String vehicleModel,
+                                                  String vehicleNumber, String email) {
+        if (updateFields(id, name, licenseNumber, vehicleModel, vehicleNumber, email) == 0) {
+            return Optional.empty();
+        }
+        return findVersionById(id);
+    }
+
+    /**
+     * Like {@link #updateReturningVersion}, but only if the stored version is one of {@code versions}. Empty if
+     * the driver does not exist or has been changed since.
+     */
+    @Transactional
+    default Optional<Long> updateIfVersion(Integer id, String name, String licenseNumber, String vehicleModel,
+                                           String vehicleNumber, String email, Collection<Long> versions) {
+        if (updateFieldsIfVersion(id, name, licenseNumber, vehicleModel, vehicleNumber, email, versions) == 0) {
+            return Optional.empty();
+        }
+        return findVersionById(id);
+    }
+
+    @Modifying
+    @Query("update Driver d set d.name = :name, d.licenseNumber = :licenseNumber, d.vehicleModel = :vehicleModel, " +
+            "d.vehicleNumber = :vehicleNumber, d.email = :email, d.version = d.version + 1 where d.id = :id")
+    int updateFields(@Param("id") Integer id,
+                     @Param("name") String name,
+                     @Param("licenseNumber") String licenseNumber,
+                     @Param("vehicleModel") String vehicleModel,
+                     @Param("vehicleNumber") String vehicleNumber,
+                     @Param("email") String email);
+
+    @Modifying
+    @Query("update Driver d set d.name = :name, d.licenseNumber = :licenseNumber, d.vehicleModel = :vehicleModel, " +
+            "d.vehicleNumber = :vehicleNumber, d.email = :email, d.version = d.version + 1 " +
+            "where d.id = :id and d.version in :versions")
+    int updateFieldsIfVersion(@Param("id") Integer id,
+                              @Param("name") String name,
+                              @Param("licenseNumber") String licenseNumber,
+                              @Param("vehicleModel") String vehicleModel,
+                              @Param("vehicleNumber") String vehicleNumber,
+                              @Param("email") String email,
+                              @Param("versions") Collection<Long> versions);
+
+    @Query("select d.version from Driver d where d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Driver d where d.id = :id and d.version in :versions")
+    int deleteIfVersion(@Param("id") Integer id, @Param("versions") Collection<Long> versions);
+
+    @Query(value = "select version from driver_table_version where id = 1", nativeQuery = true)
+    long findTableVersion();
+
+    /**
+     * Adds {@code count} to the driver table version and returns the new value. The update locks the version row
+     * until the calling transaction ends, so the value read back is this transaction's.
+     */
+    @Transactional
+    default long incrementTableVersion(int count) {
+        addToTableVersion(count);
+        return findTableVersion();
+    }
+
+    @Modifying
+    @Query(value = "update driver_table_version set version = version + :count where id = 1", nativeQuery = true)
+    int addToTableVersion(@Param("count") int count);
+
+    @Query("select d.id from Driver d where d.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("delete from Driver d where d.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+
     boolean existsDriverByLicenseNumber(String licenseNumber);
     boolean existsDriverByEmail(String email);
     boolean existsDriverByVehicleNumber(String vehicleNumber);
+
+    /**
+     * Streams every driver in id order straight from the JDBC cursor. Rows are projected into
+     * {@link DriverDTO} so nothing is attached to the persistence context while streaming.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.driver.dto.DriverDTO(d.id, d.name, d.email, d.licenseNumber, d.vehicleModel, d.vehicleNumber, d.version) " +
+            "from Driver d order by d.id")
+    Stream<DriverDTO> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select d.id as id, d.licenseNumber as licenseNumber, d.vehicleNumber as vehicleNumber, d.email as email from Driver d")
+    Stream<DriverKeys> streamAllKeys();
 }
@@ -0,0 +1,29 @@
+package com.example.driver.repository;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.model.Driver;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Queries that select only the requested {@link DriverField}s. Rows come back as {@link DriverDTO}s with the
+ * other properties null, without loading entities into the persistence context.
+ */
+public interface DriverSearchRepository {
+    /**
+     * Returns up to {@code limit} drivers matching {@code specification} in {@code sort} order, without a count query.
+     * A null specification matches every driver.
+     */
+    List<DriverDTO> findProjected(Specification<Driver> specification, Sort sort, Limit limit, Set<DriverField> fields);
+
+    /**
+     * Streams every driver in id order like {@link DriverRepository#streamAll()}, with the same transaction rules.
+     */
+    Stream<DriverDTO> streamProjected(Set<DriverField> fields);
+}
@@ -0,0 +1,56 @@
+package com.example.driver.repository;
+
+import com.example.driver.model.DriverRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Repository
+public interface ReactiveDriverRepository extends R2dbcRepository<DriverRecord, Integer> {
+    Flux<DriverRecord> findAllByOrderByIdAsc();
+
+    /**
+     * Same check as {@link DriverRepository#findConflictingFields}, in SQL.
+     */
+    @Query("SELECT 'LICENSE_NUMBER' FROM DRIVER WHERE license_number = :licenseNumber AND (:excludeId IS NULL OR id <> :excludeId) " +
+            "UNION ALL SELECT 'VEHICLE_NUMBER' FROM DRIVER WHERE vehicle_number = :vehicleNumber AND (:excludeId IS NULL OR id <> :excludeId) " +
+            "UNION ALL SELECT 'EMAIL' FROM DRIVER WHERE email = :email AND (:excludeId IS NULL OR id <> :excludeId)")
+    Flux<String> findConflictingFields(@Param("licenseNumber") String licenseNumber,
+                                       @Param("vehicleNumber") String vehicleNumber,
+                                       @Param("email") String email,
+                                       @Param("excludeId") Integer excludeId);
+
+    /**
+     * Next value of the sequence JPA draws its ids from: the top of a block of {@link com.example.driver.model.Driver#ALLOCATION_SIZE}
+     * ids that JPA never hands out.
+     */
+    @Query("SELECT NEXT VALUE FOR driver_seq")
+    Mono<Long> nextId();
+
+    /**
+     * Same as {@link DriverRepository#incrementTableVersion} for a single write.
+     */
+    default Mono<Long> incrementTableVersion() {
+        return addToTableVersion().then(findTableVersion());
+    }
+
+    @Modifying
+    @Query("UPDATE driver_table_version SET version = version + 1 WHERE id = 1")
+    Mono<Integer> addToTableVersion();
+
+    @Query("SELECT version FROM driver_table_version WHERE id = 1")
+    Mono<Long> findTableVersion();
+
+    @Modifying
+    @Query("INSERT INTO driver_change(seq, driver_id, operation, changed_at) VALUES (:seq, :driverId, :operation, :changedAt)")
+    Mono<Integer> appendChange(@Param("seq") long seq,
+                               @Param("driverId") Integer driverId,
+                               @Param("operation") String operation,
+                               @Param("changedAt") Instant changedAt);
+}
@@ -0,0 +1,333 @@
+package com.example.driver.service;
+
+import com.example.driver.config.BulkProperties;
+import com.example.driver.dto.BulkResultDTO;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UniqueField;
+import com.example.driver.mapper.Mapper;
+import com.example.driver.model.Driver;
+import com.example.driver.model.DriverChange;
+import com.example.driver.repository.ConflictingKey;
+import com.example.driver.repository.DriverRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Writes drivers in batches of {@code driver.bulk.batch-size}. Each batch is validated, checked for
+ * unique-key conflicts with one set-based query and written in a single JDBC-batched transaction.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class DriverBulkService {
+    private final DriverRepository driverRepository;
+    private final Mapper<Driver, DriverDTO> driverMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final BulkProperties bulkProperties;
+    private final DriverCache driverCache;
+    private final UniqueKeyIndex uniqueKeyIndex;
+    private final UniqueConflictMetrics uniqueConflictMetrics;
+    private final DriverChangeLog driverChangeLog;
+
+    public List<BulkResultDTO> createDrivers(List<DriverDTO> driverDTOs) {
+        return inBatches(driverDTOs, this::createBatch);
+    }
+
+    public List<BulkResultDTO> updateDrivers(List<DriverDTO> driverDTOs) {
+        return inBatches(driverDTOs, this::updateBatch);
+    }
+
+    public List<BulkResultDTO> deleteDrivers(List<Integer> ids) {
+        return inBatches(ids, this::deleteBatch);
+    }
+
+    /**
+     * Creates one batch of drivers. {@code offset} is the position of the first item in the overall
+     * request and is only used to number the results.
+     */
+    public List<BulkResultDTO> createBatch(List<DriverDTO> batch, int offset) {
+        return createBatch(batch, offset, null);
+    }
+
+    /**
+     * Creates one batch of drivers and hands every item's result to {@code checkpoint} inside the transaction
+     * that writes them, so the caller can record its progress atomically with the drivers. Only when a
+     * constraint violation forces the batch to be retried item by item do the drivers commit ahead of it.
+     */
+    public List<BulkResultDTO> createBatch(List<DriverDTO> batch, int offset, Consumer<List<BulkResultDTO>> checkpoint) {
+        BulkResultDTO[] results = new BulkResultDTO[batch.size()];
+        Map<Integer, DriverDTO> pending = validate(batch, offset, results, false);
+        rejectConflicts(pending, offset, results, false);
+        if (pending.isEmpty()) {
+            if (checkpoint != null) {
+                transactionTemplate.executeWithoutResult(status -> checkpoint.accept(Arrays.asList(results)));
+            }
+            return Arrays.asList(results);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Driver> saved = driverRepository.saveAll(pending.values().stream().map(driverMapper::mapToEntity).toList());
+                driverChangeLog.append(DriverChange.Operation.CREATE, saved.stream().map(Driver::getId).toList());
+                int i = 0;
+                for (Integer position : pending.keySet()) {
+                    results[position] = success(offset + position, HttpStatus.CREATED, driverMapper.mapToDTO(saved.get(i++)));
+                }
+                if (checkpoint != null) {
+                    checkpoint.accept(Arrays.asList(results));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the keys after the check; isolate the offending rows
+            log.warn("Bulk create batch at offset {} hit a constraint violation, retrying item by item", offset);
+            entityManager.clear();
+            pending.forEach((position, driverDTO) -> results[position] = saveOne(offset + position, null, HttpStatus.CREATED,
+                    DriverChange.Operation.CREATE, () -> driverRepository.save(driverMapper.mapToEntity(driverDTO))));
+            if (checkpoint != null) {
+                transactionTemplate.executeWithoutResult(status -> checkpoint.accept(Arrays.asList(results)));
+            }
+        } finally {
+            entityManager.clear();
+        }
+        // Whether saved together or one by one, every created driver goes into the cache and the index
+        pending.keySet().stream()
+                .map(position -> results[position].driver())
+                .filter(Objects::nonNull)
+                .forEach(driverDTO -> {
+                    driverCache.put(driverDTO);
+                    uniqueKeyIndex.put(driverDTO);
+                });
+        return Arrays.asList(results);
+    }
+
+    public List<BulkResultDTO> updateBatch(List<DriverDTO> batch, int offset) {
+        BulkResultDTO[] results = new BulkResultDTO[batch.size()];
+        Map<Integer, DriverDTO> pending = validate(batch, offset, results, true);
+        rejectConflicts(pending, offset, results, true);
+        if (pending.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Integer, Driver> existing = new HashMap<>();
+                driverRepository.findAllById(pending.values().stream().map(DriverDTO::id).toList())
+                        .forEach(driver -> existing.put(driver.getId(), driver));
+                pending.values().forEach(driverDTO -> Optional.ofNullable(existing.get(driverDTO.id()))
+                        .ifPresent(driver -> apply(driver, driverDTO)));
+                // Flushes the updates, so the drivers carry their new versions below
+                driverChangeLog.append(DriverChange.Operation.UPDATE, existing.keySet());
+                pending.forEach((position, driverDTO) -> {
+                    Driver driver = existing.get(driverDTO.id());
+                    results[position] = driver == null
+                            ? notFound(offset + position, driverDTO.id())
+                            : success(offset + position, HttpStatus.OK, driverMapper.mapToDTO(driver));
+                });
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Bulk update batch at offset {} hit a constraint violation, retrying item by item", offset);
+            entityManager.clear();
+            pending.forEach((position, driverDTO) -> results[position] = saveOne(offset + position, driverDTO.id(), HttpStatus.OK,
+                    DriverChange.Operation.UPDATE, () -> driverRepository.findById(driverDTO.id())
+                            .map(driver -> apply(driver, driverDTO))
+                            .orElse(null)));
+        } finally {
+            entityManager.clear();
+            driverCache.invalidateAll(pending.values().stream().map(DriverDTO::id).toList());
+            // A failure other than a constraint violation leaves the results unset; let it propagate as is
+            pending.keySet().stream()
+                    .map(position -> results[position])
+                    .filter(Objects::nonNull)
+                    .filter(result -> result.driver() != null)
+                    .forEach(result -> uniqueKeyIndex.put(result.driver()));
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<BulkResultDTO> deleteBatch(List<Integer> batch, int offset) {
+        Set<Integer> ids = new HashSet<>(batch);
+        ids.remove(null);
+        Set<Integer> deleted = new HashSet<>();
+        if (!ids.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                deleted.addAll(driverRepository.findExistingIds(ids));
+                if (!deleted.isEmpty()) {
+                    driverRepository.deleteByIdIn(deleted);
+                    driverChangeLog.append(DriverChange.Operation.DELETE, deleted);
+                }
+            });
+            driverCache.invalidateAll(deleted);
+            deleted.forEach(uniqueKeyIndex::remove);
+        }
+
+        List<BulkResultDTO> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Integer id = batch.get(i);
+            results.add(deleted.contains(id)
+                    ? BulkResultDTO.builder().index(offset + i).id(id).status(HttpStatus.OK.value()).build()
+                    : notFound(offset + i, id));
+        }
+        return results;
+    }
+
+    private <T> List<BulkResultDTO> inBatches(List<T> items, BiFunction<List<T>, Integer, List<BulkResultDTO>> batchWriter) {
+        List<BulkResultDTO> results = new ArrayList<>(items.size());
+        for (int offset = 0; offset < items.size(); offset += bulkProperties.batchSize()) {
+            List<T> batch = items.subList(offset, Math.min(offset + bulkProperties.batchSize(), items.size()));
+            results.addAll(batchWriter.apply(batch, offset));
+        }
+        return results;
+    }
+
+    private Map<Integer, DriverDTO> validate(List<DriverDTO> batch, int offset, BulkResultDTO[] results, boolean requireId) {
+        Map<Integer, DriverDTO> pending = new LinkedHashMap<>();
+        Set<Integer> seenIds = new HashSet<>();
+        for (int position = 0; position < batch.size(); position++) {
+            DriverDTO driverDTO = batch.get(position);
+            Map<String, String> errors = new LinkedHashMap<>();
+            if (driverDTO == null) {
+                errors.put("driver", "Driver is required");
+            } else {
+                for (ConstraintViolation<DriverDTO> violation : validator.validate(driverDTO)) {
+                    errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+                }
+                if (requireId && driverDTO.id() == null) {
+                    errors.put("id", "Id is required");
+                } else if (requireId && !seenIds.add(driverDTO.id())) {
+                    errors.put("id", "Duplicate id in request");
+                }
+            }
+
+            if (errors.isEmpty()) {
+                pending.put(position, driverDTO);
+            } else {
+                results[position] = failure(offset + position, driverDTO == null ? null : driverDTO.id(), HttpStatus.BAD_REQUEST, errors);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Removes items whose unique keys clash with each other or with rows already stored. On update an
+     * item never conflicts with its own stored row, so unchanged keys are fine.
+     */
+    private void rejectConflicts(Map<Integer, DriverDTO> pending, int offset, BulkResultDTO[] results, boolean update) {
+        Map<Integer, Map<String, String>> conflicts = new HashMap<>();
+        Map<UniqueField, Map<String, Integer>> positionsByKey = new EnumMap<>(UniqueField.class);
+        for (UniqueField field : UniqueField.values()) {
+            Map<String, Integer> positions = new HashMap<>();
+            pending.forEach((position, driverDTO) -> {
+                if (positions.putIfAbsent(field.keyOf(driverDTO), position) != null) {
+                    conflicts.computeIfAbsent(position, p -> new LinkedHashMap<>()).put(field.getProperty(), field.getMessage());
+                }
+            });
+            positionsByKey.put(field, positions);
+        }
+
+        if (!pending.isEmpty()) {
+            List<ConflictingKey> taken = driverRepository.findConflictingKeys(
+                    keys(positionsByKey, UniqueField.LICENSE_NUMBER),
+                    keys(positionsByKey, UniqueField.VEHICLE_NUMBER),
+                    keys(positionsByKey, UniqueField.EMAIL));
+            for (ConflictingKey key : taken) {
+                UniqueField field = UniqueField.valueOf(key.getField());
+                Integer position = positionsByKey.get(field).get(key.getValue());
+                if (position != null && !(update && Objects.equals(pending.get(position).id(), key.getId()))) {
+                    uniqueConflictMetrics.record(List.of(field), UniqueConflictMetrics.QUERY);
+                    conflicts.computeIfAbsent(position, p -> new LinkedHashMap<>()).put(field.getProperty(), field.getMessage());
+                }
+            }
+        }
+
+        conflicts.forEach((position, errors) -> {
+            DriverDTO driverDTO = pending.remove(position);
+            results[position] = failure(offset + position, driverDTO.id(), HttpStatus.CONFLICT, errors);
+        });
+    }
+
+    private BulkResultDTO saveOne(int index, Integer id, HttpStatus status, DriverChange.Operation operation, Supplier<Driver> write) {
+        try {
+            Driver driver = transactionTemplate.execute(tx -> {
+                Driver written = write.get();
+                if (written != null) {
+                    driverChangeLog.append(operation, List.of(written.getId()));
+                }
+                return written;
+            });
+            return driver == null
+                    ? notFound(index, id)
+                    : success(index, status, driverMapper.mapToDTO(driver));
+        } catch (DataIntegrityViolationException e) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            Set<UniqueField> conflicts = UniqueField.fromViolation(e);
+            uniqueConflictMetrics.record(conflicts, UniqueConflictMetrics.CONSTRAINT);
+            conflicts.forEach(field -> errors.put(field.getProperty(), field.getMessage()));
+            if (errors.isEmpty()) {
+                errors.put("driver", "Constraint violation");
+            }
+            return failure(index, id, HttpStatus.CONFLICT, errors);
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private static Driver apply(Driver driver, DriverDTO driverDTO) {
+        driver.setName(driverDTO.name());
+        driver.setLicenseNumber(driverDTO.licenseNumber());
+        driver.setEmail(driverDTO.email());
+        driver.setVehicleModel(driverDTO.vehicleModel());
+        driver.setVehicleNumber(driverDTO.vehicleNumber());
+        return driver;
+    }
+
+    private static Collection<String> keys(Map<UniqueField, Map<String, Integer>> positionsByKey, UniqueField field) {
+        return positionsByKey.get(field).keySet();
+    }
+
+    private static BulkResultDTO success(int index, HttpStatus status, DriverDTO driverDTO) {
+        return BulkResultDTO.builder()
+                .index(index)
+                .id(driverDTO.id())
+                .status(status.value())
+                .driver(driverDTO)
+                .build();
+    }
+
+    private static BulkResultDTO notFound(int index, Integer id) {
+        return failure(index, id, HttpStatus.NOT_FOUND, Map.of("id", "Driver with ID " + id + " not found"));
+    }
+
+    private static BulkResultDTO failure(int index, Integer id, HttpStatus status, Map<String, String> errors) {
+        return BulkResultDTO.builder()
+                .index(index)
+                .id(id)
+                .status(status.value())
+                .errors(errors)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.driver.service;
+
+import com.example.driver.config.DriverCacheProperties;
+import com.example.driver.config.ReplicaRouting;
+import com.example.driver.dto.DriverDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of drivers by id. Entries expire after {@code driver.cache.ttl} and the least
+ * recently used ones are evicted beyond {@code driver.cache.maximum-size}. Writers invalidate entries
+ * after their change is committed. Misses are loaded outside the cache and only stored if they were read from the
+ * primary and nothing was invalidated meanwhile; otherwise they are returned without being cached, so neither a
+ * lagging replica nor a load racing with a write can put a replaced driver back. A request that has to read its
+ * client's own writes from the primary bypasses the cache altogether. Its statistics are published as the
+ * {@code cache.*} meters tagged {@code cache=drivers}.
+ */
+@Component
+public class DriverCache implements MeterBinder {
+    private final boolean enabled;
+    private final Cache<Integer, DriverDTO> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DriverCache(DriverCacheProperties properties) {
+        this.enabled = properties.enabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached driver, loading it with {@code loader} on a miss. A {@code null} result is not cached.
+     */
+    public DriverDTO get(Integer id, Function<Integer, DriverLoader.Loaded<DriverDTO>> loader) {
+        if (!enabled || ReplicaRouting.isPrimaryRequired()) {
+            return loader.apply(id).value();
+        }
+        DriverDTO cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        DriverLoader.Loaded<DriverDTO> loaded = loader.apply(id);
+        if (loaded.value() != null && loaded.fromPrimary()) {
+            putIfNotInvalidated(id, loaded.value(), invalidationsBefore);
+        }
+        return loaded.value();
+    }
+
+    /**
+     * Returns the cached drivers among {@code ids} and loads only the misses, with a single call to {@code loader}.
+     */
+    public Map<Integer, DriverDTO> getAll(Collection<Integer> ids, Function<Set<Integer>, DriverLoader.Loaded<Map<Integer, DriverDTO>>> loader) {
+        if (!enabled || ReplicaRouting.isPrimaryRequired()) {
+            return loader.apply(ids.stream().collect(Collectors.toSet())).value();
+        }
+        Map<Integer, DriverDTO> drivers = new HashMap<>(cache.getAllPresent(ids));
+        Set<Integer> missing = ids.stream()
+                .filter(id -> !drivers.containsKey(id))
+                .collect(Collectors.toSet());
+        if (missing.isEmpty()) {
+            return drivers;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        DriverLoader.Loaded<Map<Integer, DriverDTO>> loaded = loader.apply(missing);
+        if (loaded.fromPrimary()) {
+            loaded.value().forEach((id, driver) -> putIfNotInvalidated(id, driver, invalidationsBefore));
+        }
+        drivers.putAll(loaded.value());
+        return drivers;
+    }
+
+    /**
+     * Stores a driver loaded after the invalidation counter read {@code invalidationsBefore}. A writer bumps the
+     * counter before invalidating, so either the check below sees it or the writer's invalidation, which waits on
+     * the key, removes what was stored.
+     */
+    private void putIfNotInvalidated(Integer id, DriverDTO driver, long invalidationsBefore) {
+        cache.asMap().compute(id, (key, cached) -> {
+            if (cached != null || invalidations.get() != invalidationsBefore) {
+                return cached;
+            }
+            return driver;
+        });
+    }
+
+    public void put(DriverDTO driverDTO) {
+        if (enabled) {
+            cache.put(driverDTO.id(), driverDTO);
+        }
+    }
+
+    public void invalidate(Integer id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll(Collection<Integer> ids) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss and eviction counters since startup.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Cache<Integer, DriverDTO> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "drivers");
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.driver.service;
+
+import com.example.driver.dto.DriverChangeDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes driver change log entries to live subscribers. Every subscriber keeps its own cursor and reads the
+ * log from there whenever a write commits, so notifications that arrive together or get coalesced only
+ * delay delivery and never lose an entry.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class DriverChangeFeed {
+    private static final int BATCH_SIZE = 500;
+
+    private final DriverChangeLog driverChangeLog;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(DriverChangeDTO change) throws Exception;
+    }
+
+    /**
+     * Delivers every entry after {@code since} to {@code listener}, first the backlog and then new entries as
+     * they commit. Entries reach one listener in seq order, one at a time, on a task executor thread.
+     */
+    public Subscription subscribe(long since, Listener listener) {
+        Subscription subscription = new Subscription(since, listener);
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    /**
+     * Runs after the writing transaction commits; the reactive API publishes outside a transaction once it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDriverChanged(DriverChangedEvent event) {
+        subscriptions.forEach(Subscription::signal);
+    }
+
+    public final class Subscription {
+        private final Listener listener;
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private volatile long cursor;
+        private volatile boolean cancelled;
+
+        private Subscription(long cursor, Listener listener) {
+            this.cursor = cursor;
+            this.listener = listener;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            // Only the first pending signal starts a drain; later ones make the running drain read again
+            if (!cancelled && pendingSignals.getAndIncrement() == 0) {
+                applicationTaskExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int signals = 1;
+            do {
+                try {
+                    deliverBacklog();
+                } catch (Exception e) {
+                    log.info("Driver change subscriber dropped at seq {}: {}", cursor, e.toString());
+                    cancel();
+                    return;
+                }
+                signals = pendingSignals.addAndGet(-signals);
+            } while (signals != 0);
+        }
+
+        private void deliverBacklog() throws Exception {
+            List<DriverChangeDTO> changes;
+            do {
+                changes = driverChangeLog.findChangesAfter(cursor, BATCH_SIZE);
+                for (DriverChangeDTO change : changes) {
+                    if (cancelled) {
+                        return;
+                    }
+                    listener.onChange(change);
+                    cursor = change.seq();
+                }
+            } while (changes.size() == BATCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.driver.service;
+
+import com.example.driver.dto.DriverChangeDTO;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.model.DriverChange;
+import com.example.driver.repository.DriverChangeRepository;
+import com.example.driver.repository.DriverChangeRow;
+import com.example.driver.repository.DriverRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only log of driver writes. Entries are numbered with the driver table version: taking the next
+ * numbers locks the version row until the writing transaction ends, so entries commit in seq order and a
+ * reader that has seen seq N will never later find a smaller one.
+ */
+@Component
+@RequiredArgsConstructor
+public class DriverChangeLog {
+    private final DriverRepository driverRepository;
+    private final DriverChangeRepository driverChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Records writes to the given drivers. Must run inside the transaction that wrote them.
+     */
+    public void append(DriverChange.Operation operation, Collection<Integer> driverIds) {
+        if (driverIds.isEmpty()) {
+            return;
+        }
+        // Send the pending writes first, so constraint violations and version bumps happen before the lock is taken
+        driverRepository.flush();
+        long seq = driverRepository.incrementTableVersion(driverIds.size()) - driverIds.size();
+
+        Instant now = Instant.now();
+        List<DriverChange> changes = new ArrayList<>(driverIds.size());
+        for (Integer driverId : driverIds) {
+            changes.add(DriverChange.builder()
+                    .seq(++seq)
+                    .driverId(driverId)
+                    .operation(operation)
+                    .changedAt(now)
+                    .build());
+        }
+        driverChangeRepository.saveAll(changes);
+        eventPublisher.publishEvent(new DriverChangedEvent());
+    }
+
+    /**
+     * Returns up to {@code limit} entries after {@code since}, oldest first, each with the current state of its driver.
+     */
+    public List<DriverChangeDTO> findChangesAfter(long since, int limit) {
+        return driverChangeRepository.findChangesAfter(since, Limit.of(limit))
+                .stream()
+                .map(DriverChangeLog::toDTO)
+                .toList();
+    }
+
+    private static DriverChangeDTO toDTO(DriverChangeRow row) {
+        DriverDTO driver = row.getVersion() == null ? null : DriverDTO.builder()
+                .id(row.getDriverId())
+                .name(row.getName())
+                .email(row.getEmail())
+                .licenseNumber(row.getLicenseNumber())
+                .vehicleModel(row.getVehicleModel())
+                .vehicleNumber(row.getVehicleNumber())
+                .version(row.getVersion())
+                .build();
+        return DriverChangeDTO.builder()
+                .seq(row.getSeq())
+                .operation(row.getOperation().name())
+                .driverId(row.getDriverId())
+                .changedAt(row.getChangedAt())
+                .driver(driver)
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.driver.service;
+
+/**
+ * Published when entries are appended to the driver change log. Listeners bound to the transaction
+ * receive it once the entries are committed.
+ */
+public record DriverChangedEvent() {
+}
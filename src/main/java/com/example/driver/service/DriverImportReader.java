@@ -0,0 +1,109 @@
+package com.example.driver.service;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.model.DriverImport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads an import file one row at a time, without holding more than the current row in memory. CSV files
+ * start with a header naming the {@link DriverDTO} properties, in any order. A row that cannot be parsed is
+ * returned with the parser's message instead of ending the file.
+ */
+abstract class DriverImportReader implements Closeable {
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    /**
+     * One data row: the driver, or the reason it could not be read.
+     */
+    record Row(DriverDTO driver, String error) {
+    }
+
+    static DriverImportReader open(DriverImport.Format format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(in);
+            case NDJSON -> new Ndjson(in, objectMapper.readerFor(DriverDTO.class));
+        };
+    }
+
+    /**
+     * The next row, or null at the end of the file.
+     */
+    abstract Row next() throws IOException;
+
+    private static final class Csv extends DriverImportReader {
+        private final MappingIterator<DriverDTO> rows;
+
+        private Csv(InputStream in) throws IOException {
+            rows = CSV_MAPPER.readerFor(DriverDTO.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(in);
+        }
+
+        @Override
+        Row next() throws IOException {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            try {
+                return new Row(rows.nextValue(), null);
+            } catch (JsonProcessingException e) {
+                // The iterator skips to the next record, so only this row is lost
+                return new Row(null, e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    /**
+     * One JSON object per line. Each line is parsed on its own, so a malformed line cannot affect the next one.
+     */
+    private static final class Ndjson extends DriverImportReader {
+        private final BufferedReader lines;
+        private final ObjectReader reader;
+
+        private Ndjson(InputStream in, ObjectReader reader) {
+            this.lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.reader = reader;
+        }
+
+        @Override
+        Row next() throws IOException {
+            String line;
+            do {
+                line = lines.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new Row(reader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new Row(null, e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            lines.close();
+        }
+    }
+}
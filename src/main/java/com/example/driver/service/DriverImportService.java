@@ -0,0 +1,262 @@
+package com.example.driver.service;
+
+import com.example.driver.config.ImportProperties;
+import com.example.driver.dto.BulkResultDTO;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverImportDTO;
+import com.example.driver.dto.DriverImportErrorDTO;
+import com.example.driver.dto.DriverImportErrorPageDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.UnprocessableEntityException;
+import com.example.driver.model.DriverImport;
+import com.example.driver.model.DriverImportError;
+import com.example.driver.repository.DriverImportErrorRepository;
+import com.example.driver.repository.DriverImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bulk imports that run in the background. An upload is spooled to {@code driver.import.directory} and read
+ * back as a stream, so a file of any size takes constant memory. Rows go through
+ * {@link DriverBulkService#createBatch} {@code driver.import.chunk-size} at a time: validated, checked against
+ * the unique columns with one query per chunk, and committed together with the chunk's rejected rows and the
+ * job's progress. A job that stops, whether it failed or the application went down, carries on after its last
+ * committed chunk.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class DriverImportService {
+    private final DriverImportRepository driverImportRepository;
+    private final DriverImportErrorRepository driverImportErrorRepository;
+    private final DriverBulkService driverBulkService;
+    private final ImportProperties importProperties;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Stores the file and queues its import. Returns as soon as the file is on disk.
+     */
+    public DriverImportDTO submit(DriverImport.Format format, InputStream body) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Files.createDirectories(importProperties.directory());
+        try {
+            Files.copy(body, file(id));
+        } catch (IOException e) {
+            Files.deleteIfExists(file(id));
+            throw e;
+        }
+
+        DriverImport driverImport = driverImportRepository.save(DriverImport.builder()
+                .id(id)
+                .format(format)
+                .status(DriverImport.Status.QUEUED)
+                .createdAt(Instant.now())
+                .build());
+        start(id);
+        return toDTO(driverImport);
+    }
+
+    public Optional<DriverImportDTO> getImport(String id) {
+        return driverImportRepository.findById(id).map(DriverImportService::toDTO);
+    }
+
+    /**
+     * Returns up to {@code size} rejected rows after row {@code after}. Pass the returned {@code nextAfter} to
+     * get the following ones; errors of a running import appear as its chunks commit.
+     */
+    public Optional<DriverImportErrorPageDTO> getErrors(String id, long after, int size) {
+        if (size < 1 || size > DriverService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + DriverService.MAX_PAGE_SIZE);
+        }
+        if (!driverImportRepository.existsById(id)) {
+            return Optional.empty();
+        }
+
+        List<DriverImportErrorDTO> errors = driverImportErrorRepository
+                .findByImportIdAndRowNumGreaterThanOrderByRowNum(id, after, Limit.of(size))
+                .stream()
+                .map(error -> DriverImportErrorDTO.builder()
+                        .row(error.getRowNum())
+                        .status(error.getStatus())
+                        .errors(error.getErrors())
+                        .build())
+                .toList();
+        return Optional.of(DriverImportErrorPageDTO.builder()
+                .errors(errors)
+                .nextAfter(errors.isEmpty() ? after : errors.get(errors.size() - 1).row())
+                .build());
+    }
+
+    /**
+     * Queues a failed import again. It skips the rows it has already committed.
+     */
+    public Optional<DriverImportDTO> resume(String id) {
+        return driverImportRepository.findById(id).map(driverImport -> {
+            if (driverImport.getStatus() != DriverImport.Status.FAILED || running.contains(id)) {
+                throw new UnprocessableEntityException("Import " + id + " is " + driverImport.getStatus()
+                        + ", only a failed import can be resumed");
+            }
+            driverImport.setStatus(DriverImport.Status.QUEUED);
+            driverImport.setError(null);
+            DriverImport queued = driverImportRepository.save(driverImport);
+            start(id);
+            return toDTO(queued);
+        });
+    }
+
+    /**
+     * Picks up the imports that were queued or running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        driverImportRepository.findByStatusIn(List.of(DriverImport.Status.QUEUED, DriverImport.Status.RUNNING))
+                .forEach(driverImport -> {
+                    log.info("Resuming import {} after row {}", driverImport.getId(), driverImport.getRowsRead());
+                    start(driverImport.getId());
+                });
+    }
+
+    private void start(String id) {
+        applicationTaskExecutor.execute(() -> run(id));
+    }
+
+    void run(String id) {
+        if (!running.add(id)) {
+            return;
+        }
+        try {
+            DriverImport driverImport = driverImportRepository.findById(id).orElseThrow();
+            driverImport.setStatus(DriverImport.Status.RUNNING);
+            if (driverImport.getStartedAt() == null) {
+                driverImport.setStartedAt(Instant.now());
+            }
+            driverImport = driverImportRepository.save(driverImport);
+
+            process(driverImport);
+
+            driverImport.setStatus(DriverImport.Status.COMPLETED);
+            driverImport.setFinishedAt(Instant.now());
+            DriverImportDTO completed = toDTO(driverImportRepository.save(driverImport));
+            Files.deleteIfExists(file(id));
+            log.info("Import {} completed: {} rows, {} imported, {} failed, {} rows/s", id, completed.rowsRead(),
+                    completed.rowsImported(), completed.rowsFailed(), completed.rowsPerSecond());
+        } catch (Exception e) {
+            log.error("Import {} failed", id, e);
+            // Reload, so the counters are the committed ones and not those of a chunk that rolled back
+            driverImportRepository.findById(id).ifPresent(driverImport -> {
+                driverImport.setStatus(DriverImport.Status.FAILED);
+                driverImport.setError(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+                driverImportRepository.save(driverImport);
+            });
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    private void process(DriverImport driverImport) throws IOException {
+        int chunkSize = importProperties.chunkSize();
+        try (DriverImportReader reader = DriverImportReader.open(driverImport.getFormat(),
+                Files.newInputStream(file(driverImport.getId())), objectMapper)) {
+            // Committed by an earlier run
+            long skipped = 0;
+            while (skipped < driverImport.getRowsRead() && reader.next() != null) {
+                skipped++;
+            }
+
+            List<DriverImportReader.Row> chunk = new ArrayList<>(chunkSize);
+            long started = System.nanoTime();
+            DriverImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    commit(driverImport, chunk, started);
+                    chunk.clear();
+                    started = System.nanoTime();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                commit(driverImport, chunk, started);
+            }
+        }
+    }
+
+    /**
+     * Writes one chunk. The progress is computed from the counts before the chunk, so it comes out the same
+     * if the bulk service has to retry the chunk item by item and checkpoints again.
+     */
+    private void commit(DriverImport driverImport, List<DriverImportReader.Row> chunk, long started) {
+        long firstRow = driverImport.getRowsRead();
+        long imported = driverImport.getRowsImported();
+        long failed = driverImport.getRowsFailed();
+        long elapsedMillis = driverImport.getElapsedMillis();
+
+        List<DriverDTO> drivers = chunk.stream().map(DriverImportReader.Row::driver).toList();
+        driverBulkService.createBatch(drivers, Math.toIntExact(firstRow), results -> {
+            List<DriverImportError> errors = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                BulkResultDTO result = results.get(i);
+                if (result.status() != HttpStatus.CREATED.value()) {
+                    String unreadable = chunk.get(i).error();
+                    errors.add(DriverImportError.builder()
+                            .importId(driverImport.getId())
+                            .rowNum(firstRow + i + 1)
+                            .status(unreadable == null ? result.status() : HttpStatus.BAD_REQUEST.value())
+                            .errors(unreadable == null ? result.errors() : Map.of("row", unreadable))
+                            .build());
+                }
+            }
+            driverImportErrorRepository.saveAll(errors);
+
+            driverImport.setRowsRead(firstRow + results.size());
+            driverImport.setRowsImported(imported + results.size() - errors.size());
+            driverImport.setRowsFailed(failed + errors.size());
+            driverImport.setElapsedMillis(elapsedMillis + (System.nanoTime() - started) / 1_000_000);
+            driverImportRepository.updateProgress(driverImport.getId(), driverImport.getRowsRead(),
+                    driverImport.getRowsImported(), driverImport.getRowsFailed(), driverImport.getElapsedMillis());
+        });
+    }
+
+    private Path file(String id) {
+        return importProperties.directory().resolve(id);
+    }
+
+    private static DriverImportDTO toDTO(DriverImport driverImport) {
+        double rowsPerSecond = driverImport.getElapsedMillis() == 0 ? 0
+                : Math.round(driverImport.getRowsRead() * 10_000.0 / driverImport.getElapsedMillis()) / 10.0;
+        return DriverImportDTO.builder()
+                .id(driverImport.getId())
+                .format(driverImport.getFormat().name())
+                .status(driverImport.getStatus().name())
+                .rowsRead(driverImport.getRowsRead())
+                .rowsImported(driverImport.getRowsImported())
+                .rowsFailed(driverImport.getRowsFailed())
+                .rowsPerSecond(rowsPerSecond)
+                .error(driverImport.getError())
+                .createdAt(driverImport.getCreatedAt())
+                .startedAt(driverImport.getStartedAt())
+                .finishedAt(driverImport.getFinishedAt())
+                .build();
+    }
+}
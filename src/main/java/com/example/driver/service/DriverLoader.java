@@ -0,0 +1,239 @@
+package com.example.driver.service;
+
+import com.example.driver.config.LookupProperties;
+import com.example.driver.config.ReplicaRouting;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.mapper.Mapper;
+import com.example.driver.model.Driver;
+import com.example.driver.repository.DriverRepository;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Loads drivers by id for lookups that missed the cache. A driver already being loaded is not queried again:
+ * concurrent callers share the in-flight load. Single lookups for different ids are collected for up to
+ * {@code driver.lookup.batch-window} and read together with one {@code findAllById}, at most
+ * {@code driver.lookup.max-batch-size} ids at a time; a zero window, the default, loads each id as it comes.
+ * <p>
+ * Loads run in a read-only transaction, whichever thread runs them, and are only shared between requests with the
+ * same {@link ReplicaRouting#routingKey() routing key}, under which they read. A request that has not read from a
+ * replica yet is pinned to the one its load read from. A request that has to read its client's own writes from the
+ * primary neither shares nor batches: it loads on its own thread, where {@link ReplicaRouting} applies.
+ * <p>
+ * Results tell whether they were read from the primary. Only those are known to include every committed write and
+ * may be cached; a replica can still be serving rows that a write has since replaced.
+ */
+@Component
+public class DriverLoader {
+    private final DriverRepository driverRepository;
+    private final Mapper<Driver, DriverDTO> driverMapper;
+    private final LookupProperties lookupProperties;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor batchTimer;
+
+    private final ConcurrentMap<LoadKey, CompletableFuture<Shared>> inFlight = new ConcurrentHashMap<>();
+    private final Object batchLock = new Object();
+    // Open batch per routing key
+    private final Map<Object, List<Integer>> batches = new HashMap<>();
+
+    private record LoadKey(Object routingKey, Integer id) {
+    }
+
+    private record Shared(DriverDTO driver, Object routingKey, boolean fromPrimary) {
+    }
+
+    /**
+     * What a load returned, and whether all of it was read from the primary.
+     */
+    public record Loaded<T>(T value, boolean fromPrimary) {
+    }
+
+    public DriverLoader(DriverRepository driverRepository, Mapper<Driver, DriverDTO> driverMapper,
+                        LookupProperties lookupProperties, AsyncTaskExecutor applicationTaskExecutor,
+                        PlatformTransactionManager transactionManager) {
+        this.driverRepository = driverRepository;
+        this.driverMapper = driverMapper;
+        this.lookupProperties = lookupProperties;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchTimer = CompletableFuture.delayedExecutor(lookupProperties.batchWindow().toNanos(), TimeUnit.NANOSECONDS,
+                applicationTaskExecutor);
+    }
+
+    /**
+     * The driver with {@code id}, or {@code null} if there is none.
+     */
+    public Loaded<DriverDTO> load(Integer id) {
+        if (ReplicaRouting.isPrimaryRequired()) {
+            return new Loaded<>(loadBatch(List.of(id)).get(id), true);
+        }
+
+        Object routingKey = ReplicaRouting.routingKey();
+        CompletableFuture<Shared> load = new CompletableFuture<>();
+        CompletableFuture<Shared> current = inFlight.putIfAbsent(new LoadKey(routingKey, id), load);
+        if (current != null) {
+            return await(current);
+        }
+
+        if (lookupProperties.batchWindow().isZero()) {
+            complete(routingKey, List.of(id), this::loadBatch);
+        } else {
+            List<Integer> full = null;
+            synchronized (batchLock) {
+                List<Integer> batch = batches.computeIfAbsent(routingKey, key -> new ArrayList<>());
+                batch.add(id);
+                if (batch.size() >= lookupProperties.maxBatchSize()) {
+                    full = batches.remove(routingKey);
+                } else if (batch.size() == 1) {
+                    batchTimer.execute(() -> completeIfPending(routingKey, batch));
+                }
+            }
+            // A full batch is loaded right away by the caller that filled it
+            if (full != null) {
+                complete(routingKey, full, this::loadBatch);
+            }
+        }
+        return await(load);
+    }
+
+    /**
+     * The drivers among {@code ids}, keyed by id. Ids in flight are awaited; the rest are loaded by this call.
+     */
+    public Loaded<Map<Integer, DriverDTO>> loadAll(Set<Integer> ids) {
+        if (ReplicaRouting.isPrimaryRequired()) {
+            return new Loaded<>(loadChunked(List.copyOf(ids)), true);
+        }
+
+        Object routingKey = ReplicaRouting.routingKey();
+        Map<Integer, CompletableFuture<Shared>> loads = new HashMap<>(ids.size() * 2);
+        List<Integer> claimed = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            CompletableFuture<Shared> load = new CompletableFuture<>();
+            CompletableFuture<Shared> current = inFlight.putIfAbsent(new LoadKey(routingKey, id), load);
+            loads.put(id, current == null ? load : current);
+            if (current == null) {
+                claimed.add(id);
+            }
+        }
+        complete(routingKey, claimed, this::loadChunked);
+
+        Map<Integer, DriverDTO> drivers = new HashMap<>(ids.size() * 2);
+        boolean fromPrimary = true;
+        for (Map.Entry<Integer, CompletableFuture<Shared>> load : loads.entrySet()) {
+            Loaded<DriverDTO> driver = await(load.getValue());
+            if (driver.value() != null) {
+                drivers.put(load.getKey(), driver.value());
+            }
+            fromPrimary &= driver.fromPrimary();
+        }
+        return new Loaded<>(drivers, fromPrimary);
+    }
+
+    private void completeIfPending(Object routingKey, List<Integer> opened) {
+        synchronized (batchLock) {
+            // Already taken by the caller that filled it
+            if (batches.get(routingKey) != opened) {
+                return;
+            }
+            batches.remove(routingKey);
+        }
+        complete(routingKey, opened, this::loadBatch);
+    }
+
+    /**
+     * Loads the claimed {@code ids} in a read-only transaction routed by {@code routingKey} and hands the result,
+     * or the failure, to everyone waiting on them.
+     */
+    private void complete(Object routingKey, List<Integer> ids, Function<List<Integer>, Map<Integer, DriverDTO>> loader) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            ReplicaRouting.Routed<Map<Integer, DriverDTO>> drivers = ReplicaRouting.callWith(routingKey,
+                    () -> readOnlyTransaction.execute(status -> loader.apply(ids)));
+            ids.forEach(id -> inFlight.remove(new LoadKey(routingKey, id))
+                    .complete(new Shared(drivers.value().get(id), drivers.routingKey(), !drivers.replicaRead())));
+        } catch (RuntimeException | Error e) {
+            ids.forEach(id -> inFlight.remove(new LoadKey(routingKey, id)).completeExceptionally(e));
+        }
+    }
+
+    private static Loaded<DriverDTO> await(CompletableFuture<Shared> load) {
+        Shared shared = join(load);
+        ReplicaRouting.adopt(shared.routingKey());
+        return new Loaded<>(shared.driver(), shared.fromPrimary());
+    }
+
+    /**
+     * Single lookups: a batch holds at most {@code driver.lookup.max-batch-size} ids and is read with one statement.
+     */
+    private Map<Integer, DriverDTO> loadBatch(List<Integer> ids) {
+        if (ids.size() == 1) {
+            return driverRepository.findById(ids.get(0))
+                    .map(driver -> Map.of(driver.getId(), driverMapper.mapToDTO(driver)))
+                    .orElse(Map.of());
+        }
+        Map<Integer, DriverDTO> drivers = new HashMap<>(ids.size() * 2);
+        driverRepository.findAllById(ids).forEach(driver -> drivers.put(driver.getId(), driverMapper.mapToDTO(driver)));
+        return drivers;
+    }
+
+    /**
+     * Loads the given ids with at most {@code driver.lookup.chunk-size} ids per IN list, keeping each
+     * statement small enough for the database to reuse its plan. With {@code driver.lookup.parallel} the
+     * chunks are independent reads on their own connections and are fetched concurrently.
+     */
+    private Map<Integer, DriverDTO> loadChunked(List<Integer> ids) {
+        int chunkSize = lookupProperties.chunkSize();
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+
+        Map<Integer, DriverDTO> drivers = new HashMap<>(ids.size() * 2);
+        if (lookupProperties.parallel() && chunks.size() > 1) {
+            // Each chunk reads in a transaction of its own, routed like the caller
+            List<CompletableFuture<List<Driver>>> loads = chunks.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(ReplicaRouting.propagate(
+                            () -> readOnlyTransaction.execute(status -> driverRepository.findAllById(chunk))), applicationTaskExecutor))
+                    .toList();
+            for (CompletableFuture<List<Driver>> load : loads) {
+                join(load).forEach(driver -> drivers.put(driver.getId(), driverMapper.mapToDTO(driver)));
+            }
+        } else {
+            for (List<Integer> chunk : chunks) {
+                driverRepository.findAllById(chunk)
+                        .forEach(driver -> drivers.put(driver.getId(), driverMapper.mapToDTO(driver)));
+            }
+        }
+        return drivers;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
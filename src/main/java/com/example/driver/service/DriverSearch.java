@@ -0,0 +1,139 @@
+package com.example.driver.service;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.dto.DriverSearchDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.model.Driver;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Query parts for {@link DriverService#searchDrivers}. Filters become prefix LIKEs, which the search indexes
+ * answer as range scans, and a page continues after the sort key and id of the previous page's last row.
+ */
+public final class DriverSearch {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private DriverSearch() {
+    }
+
+    public enum SortKey {
+        ID(DriverField.ID),
+        NAME(DriverField.NAME),
+        VEHICLE_MODEL(DriverField.VEHICLE_MODEL);
+
+        private final DriverField field;
+        private final String attribute;
+
+        SortKey(DriverField field) {
+            this.field = field;
+            this.attribute = field.property();
+        }
+
+        public static SortKey of(String value) {
+            return Arrays.stream(values())
+                    .filter(key -> key.attribute.equals(value))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Sort must be one of " + Arrays.stream(values())
+                            .map(key -> key.attribute)
+                            .collect(Collectors.joining(", "))));
+        }
+
+        /**
+         * Ascending by the key and then by id, the order of the key's index.
+         */
+        public Sort order() {
+            return this == ID ? Sort.by("id") : Sort.by(attribute, "id");
+        }
+
+        /**
+         * The field a page has to select so its cursor can be built.
+         */
+        public DriverField field() {
+            return field;
+        }
+
+        private String valueOf(DriverDTO driver) {
+            return this == ID ? "" : (String) field.get(driver);
+        }
+    }
+
+    public static Specification<Driver> matching(DriverSearchDTO filter) {
+        return Specification.allOf(Stream.of(
+                        startsWith("name", filter.name()),
+                        startsWith("vehicleModel", filter.vehicleModel()),
+                        startsWith("emailDomain", filter.emailDomain()),
+                        startsWith("vehicleNumber", filter.plate()))
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    /**
+     * Rows after the cursor in {@code sortKey} order, or null for the first page. The condition on the key alone
+     * is what the index can seek to; the id only breaks ties within one key value.
+     */
+    public static Specification<Driver> after(SortKey sortKey, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = decode(cursor);
+        if (!parts[0].equals(sortKey.name())) {
+            throw new BadRequestException("Cursor belongs to a different sort");
+        }
+        Integer lastId = parseId(parts[1], cursor);
+        if (sortKey == SortKey.ID) {
+            return (root, query, cb) -> cb.greaterThan(root.get("id"), lastId);
+        }
+        String lastValue = parts[2];
+        return (root, query, cb) -> {
+            Path<String> key = root.get(sortKey.attribute);
+            return cb.and(cb.greaterThanOrEqualTo(key, lastValue),
+                    cb.or(cb.greaterThan(key, lastValue), cb.greaterThan(root.get("id"), lastId)));
+        };
+    }
+
+    public static String cursorAfter(SortKey sortKey, DriverDTO last) {
+        String position = sortKey.name() + ":" + last.id() + ":" + sortKey.valueOf(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Specification<Driver> startsWith(String attribute, String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = prefix
+                .replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_") + "%";
+        return (root, query, cb) -> cb.like(root.get(attribute), pattern, LIKE_ESCAPE);
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length == 3) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new BadRequestException("Invalid cursor: " + cursor);
+    }
+
+    private static Integer parseId(String id, String cursor) {
+        try {
+            return Integer.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
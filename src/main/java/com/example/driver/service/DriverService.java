@@ -1,80 +1,400 @@
 package com.example.driver.service;
 
+import com.example.driver.config.LookupProperties;
+import com.example.driver.dto.DriverChangeDTO;
+import com.example.driver.dto.DriverChangePageDTO;
 import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.dto.DriverPageDTO;
+import com.example.driver.dto.DriverSearchDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.PreconditionFailedException;
 import com.example.driver.exception.UniqueException;
+import com.example.driver.exception.UniqueField;
 import com.example.driver.mapper.Mapper;
 import com.example.driver.model.Driver;
+import com.example.driver.model.DriverChange;
 import com.example.driver.repository.DriverRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class DriverService {
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final DriverRepository driverRepository;
     private final Mapper<Driver, DriverDTO> driverMapper;
+    private final DriverCache driverCache;
+    private final UniqueKeyIndex uniqueKeyIndex;
+    private final LookupProperties lookupProperties;
+    private final UniqueConflictMetrics uniqueConflictMetrics;
+    private final DriverLoader driverLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final DriverChangeLog driverChangeLog;
 
+    @Transactional(readOnly = true)
     public Optional<DriverDTO> getDriverById(Integer id) {
-        return driverRepository.findById(id)
-                .map(driverMapper::mapToDTO);
+        return Optional.ofNullable(driverCache.get(id, driverLoader::load));
     }
 
-    public List<DriverDTO> getAllDrivers() {
-        return driverRepository.findAll()
-                .stream()
-                .map(driverMapper::mapToDTO)
-                .toList();
+    public Optional<DriverDTO> getDriverByLicenseNumber(String licenseNumber) {
+        return getDriverByUniqueKey(UniqueField.LICENSE_NUMBER, licenseNumber, driverRepository::findByLicenseNumber);
+    }
+
+    public Optional<DriverDTO> getDriverByVehicleNumber(String vehicleNumber) {
+        return getDriverByUniqueKey(UniqueField.VEHICLE_NUMBER, vehicleNumber, driverRepository::findByVehicleNumber);
+    }
+
+    /**
+     * Version of the driver table as a whole: the sequence number of the latest committed change. Callers that
+     * tag a response with it read it before the rows, so a concurrent write can leave the tag older than the
+     * body but never newer.
+     */
+    @Transactional(readOnly = true)
+    public long getTableVersion() {
+        return driverRepository.findTableVersion();
+    }
+
+    /**
+     * Every driver, reading only the columns behind {@code fields}.
+     */
+    @Transactional(readOnly = true)
+    public List<DriverDTO> getAllDrivers(Set<DriverField> fields) {
+        if (fields.containsAll(DriverField.ALL)) {
+            return driverRepository.findAll()
+                    .stream()
+                    .map(driverMapper::mapToDTO)
+                    .toList();
+        }
+        return driverRepository.findProjected(null, Sort.by("id"), Limit.unlimited(), fields);
     }
 
+    @Transactional(readOnly = true)
+    public DriverPageDTO getDriverPage(String cursor, int size, Set<DriverField> fields) {
+        checkPageSize(size);
+        Integer afterId = DriverCursor.decode(cursor);
+
+        // One extra row tells us whether another page exists without a count query
+        Set<DriverField> selected = with(fields, DriverField.ID);
+        List<DriverDTO> rows = fields.containsAll(DriverField.ALL)
+                ? driverRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1))
+                        .stream()
+                        .map(driverMapper::mapToDTO)
+                        .toList()
+                : driverRepository.findProjected((root, query, cb) -> cb.greaterThan(root.get("id"), afterId),
+                        Sort.by("id"), Limit.of(size + 1), selected);
+
+        String nextCursor = rows.size() > size
+                ? DriverCursor.encode(rows.get(size - 1).id())
+                : null;
+
+        return DriverPageDTO.builder()
+                .drivers(firstPage(rows, size, fields, selected))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Drivers matching every given prefix filter, ordered by {@code sort} and paged by keyset like
+     * {@link #getDriverPage}. A cursor only continues the sort it was issued for.
+     */
+    @Transactional(readOnly = true)
+    public DriverPageDTO searchDrivers(DriverSearchDTO filter, String sort, String cursor, int size, Set<DriverField> fields) {
+        checkPageSize(size);
+        DriverSearch.SortKey sortKey = DriverSearch.SortKey.of(sort);
+
+        Specification<Driver> specification = DriverSearch.matching(filter).and(DriverSearch.after(sortKey, cursor));
+        Set<DriverField> selected = with(fields, DriverField.ID, sortKey.field());
+        List<DriverDTO> rows = driverRepository.findProjected(specification, sortKey.order(), Limit.of(size + 1), selected);
+
+        return DriverPageDTO.builder()
+                .drivers(firstPage(rows, size, fields, selected))
+                .nextCursor(rows.size() > size ? DriverSearch.cursorAfter(sortKey, rows.get(size - 1)) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllDrivers(Set<DriverField> fields, Consumer<DriverDTO> consumer) {
+        try (Stream<DriverDTO> drivers = fields.containsAll(DriverField.ALL)
+                ? driverRepository.streamAll()
+                : driverRepository.streamProjected(fields)) {
+            drivers.forEach(consumer);
+        }
+    }
+
+    /**
+     * Returns the drivers for the given ids in request order, skipping nulls, duplicates and unknown ids.
+     */
+    @Transactional(readOnly = true)
     public List<DriverDTO> getDriverByIds(List<Integer> ids) {
-        return driverRepository.findAllById(ids)
-                .stream()
-                .map(driverMapper::mapToDTO)
+        List<Integer> requestedIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (requestedIds.size() > lookupProperties.maxIds()) {
+            throw new BadRequestException("At most " + lookupProperties.maxIds() + " distinct ids can be requested at once");
+        }
+
+        // Cached ids are served from memory, only the misses go to the database
+        Map<Integer, DriverDTO> drivers = driverCache.getAll(requestedIds, driverLoader::loadAll);
+
+        return requestedIds.stream()
+                .map(drivers::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
     public Optional<DriverDTO> createDriver(DriverDTO driverDTO) {
-        checkFieldUniqueness(driverDTO);
-        return Optional.of(driverRepository.save(driverMapper.mapToEntity(driverDTO)))
-                .map(driverMapper::mapToDTO);
+        checkFieldUniqueness(null, driverDTO);
+        DriverDTO created = writeUnique(() -> transactionTemplate.execute(status -> {
+            Driver saved = driverRepository.save(driverMapper.mapToEntity(driverDTO));
+            driverChangeLog.append(DriverChange.Operation.CREATE, List.of(saved.getId()));
+            return driverMapper.mapToDTO(saved);
+        }));
+        driverCache.put(created);
+        uniqueKeyIndex.put(created);
+        return Optional.of(created);
     }
 
+    /**
+     * Updates the driver with a single statement and no read beforehand. Returns empty if the driver does not exist.
+     */
     public Optional<DriverDTO> updateDriver(Integer id, DriverDTO driverDTO) {
-        return driverRepository.findById(id)
-                .map(existingDriver -> {
-                    existingDriver.setName(driverDTO.name());
-                    existingDriver.setLicenseNumber(driverDTO.licenseNumber());
-                    existingDriver.setEmail(driverDTO.email());
-                    existingDriver.setVehicleModel(driverDTO.vehicleModel());
-                    existingDriver.setVehicleNumber(driverDTO.vehicleNumber());
-
-                    checkFieldUniqueness(driverDTO);
-                    return driverRepository.save(existingDriver);
-                })
-                .map(driverMapper::mapToDTO);
-    }
-
-    public void deleteDriver(Integer id) {
-        driverRepository.deleteById(id);
-    }
-
-    private void checkFieldUniqueness(DriverDTO driverDTO) {
-        Map<Predicate<DriverDTO>, String> checks = Map.of(
-                driver -> driverRepository.existsDriverByLicenseNumber(driver.licenseNumber()), "License Number already exists",
-                driver -> driverRepository.existsDriverByVehicleNumber(driver.vehicleNumber()), "Vehicle Number already exists",
-                driver -> driverRepository.existsDriverByEmail(driver.email()), "Email already exists"
-        );
-
-        checks.entrySet().stream()
-                .filter(entry -> entry.getKey().test(driverDTO))
-                .findFirst()
-                .ifPresent(entry -> {
-                    throw new UniqueException(entry.getValue());
-                });
+        checkFieldUniquenessInIndexIfReady(id, driverDTO);
+        Optional<Long> version = writeUnique(() -> transactionTemplate.execute(status -> {
+            Optional<Long> newVersion = driverRepository.updateReturningVersion(id, driverDTO.name(), driverDTO.licenseNumber(),
+                    driverDTO.vehicleModel(), driverDTO.vehicleNumber(), driverDTO.email());
+            newVersion.ifPresent(v -> driverChangeLog.append(DriverChange.Operation.UPDATE, List.of(id)));
+            return newVersion;
+        }));
+        return version.map(v -> updated(id, driverDTO, v));
+    }
+
+    /**
+     * Updates the driver only if its current version is one of {@code versions}, with a single statement and
+     * no read beforehand. Returns empty if the driver does not exist and throws {@link PreconditionFailedException}
+     * if it has been changed since.
+     */
+    public Optional<DriverDTO> updateDriver(Integer id, DriverDTO driverDTO, Collection<Long> versions) {
+        checkFieldUniquenessInIndexIfReady(id, driverDTO);
+        Optional<Long> version = versions.isEmpty() ? Optional.empty() : writeUnique(() -> transactionTemplate.execute(status -> {
+            Optional<Long> newVersion = driverRepository.updateIfVersion(id, driverDTO.name(), driverDTO.licenseNumber(),
+                    driverDTO.vehicleModel(), driverDTO.vehicleNumber(), driverDTO.email(), versions);
+            newVersion.ifPresent(v -> driverChangeLog.append(DriverChange.Operation.UPDATE, List.of(id)));
+            return newVersion;
+        }));
+        if (version.isEmpty()) {
+            throwIfModified(id);
+            return Optional.empty();
+        }
+        return Optional.of(updated(id, driverDTO, version.get()));
+    }
+
+    /**
+     * Deletes the driver with a single statement. Returns false if it does not exist.
+     */
+    public boolean deleteDriver(Integer id) {
+        boolean deleted = transactionTemplate.execute(status -> {
+            if (driverRepository.deleteByIdIn(List.of(id)) == 0) {
+                return false;
+            }
+            driverChangeLog.append(DriverChange.Operation.DELETE, List.of(id));
+            return true;
+        });
+        if (deleted) {
+            driverCache.invalidate(id);
+            uniqueKeyIndex.remove(id);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the driver only if its current version is one of {@code versions}. Returns false if the driver
+     * does not exist and throws {@link PreconditionFailedException} if it has been changed since.
+     */
+    public boolean deleteDriver(Integer id, Collection<Long> versions) {
+        boolean deleted = !versions.isEmpty() && transactionTemplate.execute(status -> {
+            if (driverRepository.deleteIfVersion(id, versions) == 0) {
+                return false;
+            }
+            driverChangeLog.append(DriverChange.Operation.DELETE, List.of(id));
+            return true;
+        });
+        if (!deleted) {
+            throwIfModified(id);
+            return false;
+        }
+        driverCache.invalidate(id);
+        uniqueKeyIndex.remove(id);
+        return true;
+    }
+
+    /**
+     * Returns up to {@code size} changes after sequence number {@code since}, oldest first. Pass the returned
+     * {@code nextSince} to get the following ones; it stays at {@code since} while nothing has changed.
+     */
+    public DriverChangePageDTO getChanges(long since, int size) {
+        checkPageSize(size);
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+
+        List<DriverChangeDTO> changes = driverChangeLog.findChangesAfter(since, size);
+        return DriverChangePageDTO.builder()
+                .changes(changes)
+                .nextSince(changes.isEmpty() ? since : changes.get(changes.size() - 1).seq())
+                .build();
+    }
+
+    /**
+     * Fields to select for a page: the requested ones plus those its cursor is built from.
+     */
+    private static Set<DriverField> with(Set<DriverField> fields, DriverField... required) {
+        Set<DriverField> selected = EnumSet.copyOf(fields);
+        selected.addAll(Arrays.asList(required));
+        return selected;
+    }
+
+    /**
+     * The first {@code size} rows, without the fields that were only selected for the cursor.
+     */
+    private static List<DriverDTO> firstPage(List<DriverDTO> rows, int size, Set<DriverField> fields, Set<DriverField> selected) {
+        Stream<DriverDTO> page = rows.stream().limit(size);
+        if (!fields.containsAll(selected)) {
+            page = page.map(driver -> DriverField.retain(driver, fields));
+        }
+        return page.toList();
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Called when a conditional write matched no row, to tell a stale version from a missing driver.
+     */
+    private void throwIfModified(Integer id) {
+        if (driverRepository.existsById(id)) {
+            throw new PreconditionFailedException("Driver with ID " + id + " has been modified");
+        }
+    }
+
+    /**
+     * The update statement carries every field and returns the new version, so the result needs no read back.
+     */
+    private DriverDTO updated(Integer id, DriverDTO driverDTO, long version) {
+        DriverDTO driver = DriverDTO.builder()
+                .id(id)
+                .name(driverDTO.name())
+                .email(driverDTO.email())
+                .licenseNumber(driverDTO.licenseNumber())
+                .vehicleModel(driverDTO.vehicleModel())
+                .vehicleNumber(driverDTO.vehicleNumber())
+                .version(version)
+                .build();
+        driverCache.invalidate(id);
+        uniqueKeyIndex.put(driver);
+        return driver;
+    }
+
+    private Optional<DriverDTO> getDriverByUniqueKey(UniqueField field, String value, Function<String, Optional<Driver>> query) {
+        if (uniqueKeyIndex.isReady()) {
+            Optional<DriverDTO> candidate = uniqueKeyIndex.findCandidate(field, value).flatMap(this::getDriverById);
+            if (candidate.isPresent() && value.equals(field.keyOf(candidate.get()))) {
+                return candidate;
+            }
+            // No entry, a stale one or two values sharing a hash; let the database decide
+        }
+        return query.apply(value).map(driverMapper::mapToDTO);
+    }
+
+    private void checkFieldUniqueness(Integer id, DriverDTO driverDTO) {
+        if (uniqueKeyIndex.isReady() && checkFieldUniquenessInIndex(id, driverDTO)) {
+            return;
+        }
+
+        Set<UniqueField> conflicts = EnumSet.noneOf(UniqueField.class);
+        driverRepository.findConflictingFields(driverDTO.licenseNumber(), driverDTO.vehicleNumber(), driverDTO.email(), id)
+                .forEach(field -> conflicts.add(UniqueField.valueOf(field)));
+
+        if (!conflicts.isEmpty()) {
+            uniqueConflictMetrics.record(conflicts, UniqueConflictMetrics.QUERY);
+            throw new UniqueException(conflicts);
+        }
+    }
+
+    /**
+     * Updates skip the database pre-check and leave uniqueness to the constraints, which {@link #writeUnique}
+     * reports like the pre-check would. The index still answers most conflicts without a round trip, and
+     * with every field named instead of the first one the constraint hit.
+     */
+    private void checkFieldUniquenessInIndexIfReady(Integer id, DriverDTO driverDTO) {
+        if (uniqueKeyIndex.isReady()) {
+            checkFieldUniquenessInIndex(id, driverDTO);
+        }
+    }
+
+    /**
+     * Answers the pre-check from the unique key index. Returns false when a hash collision means the index
+     * cannot decide and the database has to be asked.
+     */
+    private boolean checkFieldUniquenessInIndex(Integer id, DriverDTO driverDTO) {
+        Set<UniqueField> conflicts = EnumSet.noneOf(UniqueField.class);
+        for (UniqueField field : UniqueField.values()) {
+            String value = field.keyOf(driverDTO);
+            Optional<Integer> candidate = uniqueKeyIndex.findCandidate(field, value)
+                    .filter(candidateId -> !candidateId.equals(id));
+            if (candidate.isEmpty()) {
+                continue;
+            }
+            Optional<DriverDTO> holder = getDriverById(candidate.get());
+            if (holder.isPresent() && value.equals(field.keyOf(holder.get()))) {
+                conflicts.add(field);
+            } else if (holder.isPresent()) {
+                return false;
+            }
+        }
+
+        if (!conflicts.isEmpty()) {
+            uniqueConflictMetrics.record(conflicts, UniqueConflictMetrics.INDEX);
+            throw new UniqueException(conflicts);
+        }
+        return true;
+    }
+
+    private <T> T writeUnique(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent insert got past the pre-check; report it the same way
+            Set<UniqueField> conflicts = UniqueField.fromViolation(e);
+            if (conflicts.isEmpty()) {
+                throw e;
+            }
+            uniqueConflictMetrics.record(conflicts, UniqueConflictMetrics.CONSTRAINT);
+            throw new UniqueException(conflicts);
+        }
     }
 }
@@ -0,0 +1,218 @@
+package com.example.driver.service;
+
+import com.example.driver.config.SnapshotProperties;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.model.DriverImport;
+import com.example.driver.repository.DriverRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped CSV or NDJSON dumps of the driver table in {@code driver.snapshot.directory}, named by the table
+ * version they were taken at. A snapshot is written once per version and format, streaming rows from the
+ * database cursor straight into the file, and is then handed out for as long as the table version, which every
+ * write through any instance or API bumps, stays the same. A replaced file is deleted once it has been replaced
+ * for {@code driver.snapshot.delete-after}.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class DriverSnapshotService {
+    // Columns in DriverDTO order rather than CsvMapper's default alphabetical one
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DriverRepository driverRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SnapshotProperties snapshotProperties;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<DriverImport.Format, Snapshot> current = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DriverImport.Format, CompletableFuture<Snapshot>> taking = new ConcurrentHashMap<>();
+
+    public record Snapshot(DriverImport.Format format, long version, Path file, long size) {
+    }
+
+    /**
+     * The snapshot of the current table in {@code format}, taking it if the table version moved since the last one.
+     * Concurrent callers share one snapshot being taken.
+     */
+    public Snapshot getSnapshot(DriverImport.Format format) {
+        Snapshot snapshot = current.get(format);
+        if (snapshot != null && snapshot.version() == driverRepository.findTableVersion()) {
+            return snapshot;
+        }
+
+        CompletableFuture<Snapshot> take = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = taking.putIfAbsent(format, take);
+        if (running != null) {
+            return join(running);
+        }
+        try {
+            Snapshot taken = take(format);
+            current.put(format, taken);
+            take.complete(taken);
+            return taken;
+        } catch (RuntimeException e) {
+            take.completeExceptionally(e);
+            throw e;
+        } finally {
+            taking.remove(format, take);
+        }
+    }
+
+    /**
+     * Reads the version and the rows in one repeatable-read transaction, so the file holds exactly the table at
+     * that version. A file already written for the version, e.g. before a restart, is reused as it is.
+     */
+    private Snapshot take(DriverImport.Format format) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        Snapshot snapshot = transactionTemplate.execute(status -> {
+            long version = driverRepository.findTableVersion();
+            Path file = snapshotProperties.directory().resolve(fileName(format, version));
+            try {
+                if (Files.notExists(file)) {
+                    long started = System.nanoTime();
+                    write(format, file);
+                    log.info("Wrote {} snapshot of driver table version {} to {} ({} bytes in {} ms)", format, version, file,
+                            Files.size(file), (System.nanoTime() - started) / 1_000_000);
+                }
+                return new Snapshot(format, version, file, Files.size(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        deleteOlder(format);
+        return snapshot;
+    }
+
+    private void write(DriverImport.Format format, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path partial = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".partial");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE);
+             Stream<DriverDTO> drivers = driverRepository.streamAll()) {
+            switch (format) {
+                case CSV -> writeCsv(drivers, out);
+                case NDJSON -> writeNdjson(drivers, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        // Downloads only ever see complete files
+        Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeCsv(Stream<DriverDTO> drivers, OutputStream out) throws IOException {
+        try (SequenceWriter rows = CSV_MAPPER.writerFor(DriverDTO.class)
+                .with(CSV_MAPPER.schemaFor(DriverDTO.class).withHeader())
+                .writeValues(out)) {
+            drivers.forEach(driver -> {
+                try {
+                    rows.write(driver);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeNdjson(Stream<DriverDTO> drivers, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            drivers.forEach(driver -> {
+                try {
+                    writer.writeValue(generator, driver);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Deletes the files of older versions that were replaced more than {@code driver.snapshot.delete-after} ago, that
+     * is whose next newer file was written before then. A download handed a file just before it was replaced, which
+     * Tomcat may only open once the request has returned, keeps finding it.
+     */
+    private void deleteOlder(DriverImport.Format format) {
+        String prefix = "drivers-";
+        String suffix = extension(format);
+        Instant replacedBefore = Instant.now().minus(snapshotProperties.deleteAfter());
+        try (Stream<Path> files = Files.list(snapshotProperties.directory())) {
+            List<Path> newestFirst = files
+                    .filter(file -> file.getFileName().toString().startsWith(prefix) && file.getFileName().toString().endsWith(suffix))
+                    .sorted(Comparator.comparingLong((Path file) -> version(file, prefix, suffix)).reversed())
+                    .toList();
+            // When the file before in the list was written, the one after it was replaced
+            Instant replaced = null;
+            for (Path file : newestFirst) {
+                Instant written = Files.getLastModifiedTime(file).toInstant();
+                if (replaced != null && replaced.isBefore(replacedBefore)) {
+                    Files.deleteIfExists(file);
+                }
+                replaced = written;
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete old {} snapshots", format, e);
+        }
+    }
+
+    private static String fileName(DriverImport.Format format, long version) {
+        return "drivers-" + version + extension(format);
+    }
+
+    private static String extension(DriverImport.Format format) {
+        return "." + format.name().toLowerCase(Locale.ROOT) + ".gz";
+    }
+
+    private static long version(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.driver.service;
+
+import com.example.driver.config.IdempotencyProperties;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.UniqueException;
+import com.example.driver.exception.UnprocessableEntityException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Outcomes of requests sent with an {@code Idempotency-Key}, so a retried request is answered without running
+ * again. Keys are kept for {@code driver.idempotency.ttl}, at most {@code driver.idempotency.maximum-size} of
+ * them. A retry that arrives while the first attempt is still running waits for it instead of starting its
+ * own. Client errors such as a uniqueness conflict are replayed like results; any other failure forgets the
+ * key so the next retry runs again. Its statistics are published as the {@code cache.*} meters tagged
+ * {@code cache=idempotency}.
+ */
+@Component
+public class IdempotencyStore implements MeterBinder {
+    private final int maxKeyLength;
+    private final Cache<String, Execution> cache;
+
+    private record Execution(Object request, CompletableFuture<Object> outcome) {
+    }
+
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.maxKeyLength = properties.maxKeyLength();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Runs {@code action} for the first request with {@code key} and returns its result. Later requests with the
+     * same key get that result passed through {@code replay}, or its exception rethrown; a key reused for a
+     * request not equal to the first one is rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object request, Supplier<T> action, UnaryOperator<T> replay) {
+        if (key.isBlank() || key.length() > maxKeyLength) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + maxKeyLength + " characters");
+        }
+
+        Execution execution = new Execution(request, new CompletableFuture<>());
+        Execution first = cache.get(key, k -> execution);
+        if (first != execution) {
+            if (!first.request().equals(request)) {
+                throw new UnprocessableEntityException("Idempotency-Key " + key + " was already used for a different request");
+            }
+            return replay.apply((T) await(first.outcome()));
+        }
+
+        try {
+            T result = action.get();
+            execution.outcome().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (!isClientError(e)) {
+                cache.asMap().remove(key, execution);
+            }
+            execution.outcome().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> outcome) {
+        try {
+            return outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isClientError(Throwable e) {
+        return e instanceof UniqueException || e instanceof BadRequestException;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency");
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.driver.service;
+
+import com.example.driver.config.LookupProperties;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.UniqueException;
+import com.example.driver.exception.UniqueField;
+import com.example.driver.mapper.Mapper;
+import com.example.driver.model.Driver;
+import com.example.driver.model.DriverChange;
+import com.example.driver.model.DriverRecord;
+import com.example.driver.repository.ReactiveDriverRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link DriverService} over R2DBC. Writes keep {@link DriverCache} and
+ * {@link UniqueKeyIndex} in step with the blocking API, which reads from them, and append to the driver
+ * change log in their own transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveDriverService {
+    private final ReactiveDriverRepository reactiveDriverRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final Mapper<DriverRecord, DriverDTO> driverRecordMapper;
+    private final DriverCache driverCache;
+    private final UniqueKeyIndex uniqueKeyIndex;
+    private final UniqueConflictMetrics uniqueConflictMetrics;
+    private final LookupProperties lookupProperties;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    // Next and last id of the block drawn from driver_seq; empty until the first create
+    private final long[] idBlock = {1, 0};
+
+    public Mono<DriverDTO> getDriverById(Integer id) {
+        return reactiveDriverRepository.findById(id)
+                .map(driverRecordMapper::mapToDTO);
+    }
+
+    /**
+     * Emits drivers in id order as the subscriber requests them; rows are fetched from the database on demand.
+     */
+    public Flux<DriverDTO> getAllDrivers() {
+        return reactiveDriverRepository.findAllByOrderByIdAsc()
+                .map(driverRecordMapper::mapToDTO);
+    }
+
+    public Flux<DriverDTO> getDriverByIds(List<Integer> ids) {
+        List<Integer> requestedIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (requestedIds.size() > lookupProperties.maxIds()) {
+            return Flux.error(new BadRequestException("At most " + lookupProperties.maxIds() + " distinct ids can be requested at once"));
+        }
+
+        return Flux.fromIterable(requestedIds)
+                .buffer(lookupProperties.chunkSize())
+                .concatMap(reactiveDriverRepository::findAllById)
+                .map(driverRecordMapper::mapToDTO)
+                .collectMap(DriverDTO::id)
+                .flatMapIterable(drivers -> requestedIds.stream()
+                        .map(drivers::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    public Mono<DriverDTO> createDriver(DriverDTO driverDTO) {
+        return checkFieldUniqueness(null, driverDTO)
+                .then(nextId())
+                .flatMap(id -> {
+                    DriverRecord driver = driverRecordMapper.mapToEntity(driverDTO);
+                    driver.setId(id);
+                    return saveUnique(r2dbcEntityTemplate.insert(driver));
+                })
+                .flatMap(created -> appendChange(DriverChange.Operation.CREATE, created.getId()).thenReturn(created))
+                .as(transactionalOperator::transactional)
+                .map(driverRecordMapper::mapToDTO)
+                .doOnNext(created -> {
+                    driverCache.put(created);
+                    uniqueKeyIndex.put(created);
+                    eventPublisher.publishEvent(new DriverChangedEvent());
+                });
+    }
+
+    public Mono<DriverDTO> updateDriver(Integer id, DriverDTO driverDTO) {
+        return reactiveDriverRepository.findById(id)
+                .flatMap(existingDriver -> {
+                    existingDriver.setName(driverDTO.name());
+                    existingDriver.setLicenseNumber(driverDTO.licenseNumber());
+                    existingDriver.setEmail(driverDTO.email());
+                    existingDriver.setVehicleModel(driverDTO.vehicleModel());
+                    existingDriver.setVehicleNumber(driverDTO.vehicleNumber());
+
+                    return checkFieldUniqueness(id, driverDTO)
+                            .then(saveUnique(reactiveDriverRepository.save(existingDriver)));
+                })
+                .flatMap(updated -> appendChange(DriverChange.Operation.UPDATE, id).thenReturn(updated))
+                .as(transactionalOperator::transactional)
+                .map(driverRecordMapper::mapToDTO)
+                .doOnNext(updated -> {
+                    driverCache.invalidate(id);
+                    uniqueKeyIndex.put(updated);
+                    eventPublisher.publishEvent(new DriverChangedEvent());
+                });
+    }
+
+    /**
+     * Deletes the driver and emits {@code true}, or emits {@code false} if it did not exist.
+     */
+    public Mono<Boolean> deleteDriver(Integer id) {
+        return reactiveDriverRepository.existsById(id)
+                .flatMap(exists -> !exists
+                        ? Mono.just(false)
+                        : reactiveDriverRepository.deleteById(id)
+                                .then(appendChange(DriverChange.Operation.DELETE, id))
+                                .thenReturn(true))
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> {
+                    if (deleted) {
+                        driverCache.invalidate(id);
+                        uniqueKeyIndex.remove(id);
+                        eventPublisher.publishEvent(new DriverChangedEvent());
+                    }
+                });
+    }
+
+    /**
+     * Next id from the current block, fetching a new one from {@code driver_seq} when it is used up. Like JPA's
+     * pooled optimizer, a sequence value {@code v} stands for the ids {@code v - ALLOCATION_SIZE + 1} to {@code v},
+     * so both draw disjoint blocks from the same sequence.
+     */
+    private Mono<Integer> nextId() {
+        return Mono.defer(() -> {
+            synchronized (idBlock) {
+                if (idBlock[0] <= idBlock[1]) {
+                    return Mono.just(Math.toIntExact(idBlock[0]++));
+                }
+            }
+            return reactiveDriverRepository.nextId().map(hi -> {
+                synchronized (idBlock) {
+                    // A concurrent create may have fetched a block meanwhile; its ids are used first
+                    if (idBlock[0] > idBlock[1]) {
+                        idBlock[0] = hi - Driver.ALLOCATION_SIZE + 1;
+                        idBlock[1] = hi;
+                    }
+                    return Math.toIntExact(idBlock[0]++);
+                }
+            });
+        });
+    }
+
+    /**
+     * Reactive counterpart of {@link DriverChangeLog#append}; must run inside the writing transaction.
+     */
+    private Mono<Integer> appendChange(DriverChange.Operation operation, Integer driverId) {
+        return reactiveDriverRepository.incrementTableVersion()
+                .flatMap(seq -> reactiveDriverRepository.appendChange(seq, driverId, operation.name(), Instant.now()));
+    }
+
+    private Mono<Void> checkFieldUniqueness(Integer id, DriverDTO driverDTO) {
+        return reactiveDriverRepository.findConflictingFields(driverDTO.licenseNumber(), driverDTO.vehicleNumber(), driverDTO.email(), id)
+                .map(UniqueField::valueOf)
+                .collect(() -> EnumSet.noneOf(UniqueField.class), Set::add)
+                .flatMap(conflicts -> {
+                    if (conflicts.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    uniqueConflictMetrics.record(conflicts, UniqueConflictMetrics.QUERY);
+                    return Mono.error(new UniqueException(conflicts));
+                });
+    }
+
+    private Mono<DriverRecord> saveUnique(Mono<DriverRecord> save) {
+        // A concurrent insert got past the pre-check; report it the same way
+        return save.onErrorMap(DataIntegrityViolationException.class, e -> {
+            Set<UniqueField> conflicts = UniqueField.fromViolation(e);
+            if (conflicts.isEmpty()) {
+                return e;
+            }
+            uniqueConflictMetrics.record(conflicts, UniqueConflictMetrics.CONSTRAINT);
+            return new UniqueException(conflicts);
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.driver.service;
+
+import com.example.driver.exception.UniqueField;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Counts rejected writes per unique field as {@code driver.unique.conflicts}. The {@code source} tag tells
+ * which check caught the conflict: the in-memory {@code index}, the pre-check {@code query}, or the database
+ * {@code constraint} when a concurrent writer got past the pre-check.
+ */
+@Component
+@RequiredArgsConstructor
+public class UniqueConflictMetrics {
+    public static final String INDEX = "index";
+    public static final String QUERY = "query";
+    public static final String CONSTRAINT = "constraint";
+
+    private final MeterRegistry meterRegistry;
+
+    public void record(Collection<UniqueField> fields, String source) {
+        for (UniqueField field : fields) {
+            meterRegistry.counter("driver.unique.conflicts", "field", field.getProperty(), "source", source).increment();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.driver.service;
+
+import com.example.driver.config.UniqueIndexProperties;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UniqueField;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the unique driver columns. Values are stored as 64-bit hashes rather than strings,
+ * so an entry only names a candidate driver: callers confirm the match against the driver itself.
+ * Disabled unless {@code driver.unique-index.enabled} is set; it answers nothing until
+ * {@link UniqueKeyIndexLoader} has finished the initial load.
+ */
+@Component
+public class UniqueKeyIndex {
+    private final boolean enabled;
+    private final Map<UniqueField, ConcurrentHashMap<Long, Integer>> idsByKey = new EnumMap<>(UniqueField.class);
+    private final ConcurrentHashMap<Integer, long[]> keysById = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public UniqueKeyIndex(UniqueIndexProperties properties) {
+        this.enabled = properties.enabled();
+        for (UniqueField field : UniqueField.values()) {
+            idsByKey.put(field, new ConcurrentHashMap<>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Returns the id of the driver that may hold {@code value}, or empty if no driver does.
+     */
+    public Optional<Integer> findCandidate(UniqueField field, String value) {
+        return Optional.ofNullable(idsByKey.get(field).get(hash(value)));
+    }
+
+    public void put(DriverDTO driverDTO) {
+        if (enabled) {
+            put(driverDTO.id(), driverDTO.licenseNumber(), driverDTO.vehicleNumber(), driverDTO.email(), true);
+        }
+    }
+
+    /**
+     * Adds a row read during the initial load. Rows already written through {@link #put} are newer and kept.
+     */
+    void load(Integer id, String licenseNumber, String vehicleNumber, String email) {
+        put(id, licenseNumber, vehicleNumber, email, false);
+    }
+
+    public void remove(Integer id) {
+        long[] keys = keysById.remove(id);
+        if (keys != null) {
+            UniqueField[] fields = UniqueField.values();
+            for (int i = 0; i < fields.length; i++) {
+                idsByKey.get(fields[i]).remove(keys[i], id);
+            }
+        }
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    private void put(Integer id, String licenseNumber, String vehicleNumber, String email, boolean replace) {
+        long[] keys = {hash(licenseNumber), hash(vehicleNumber), hash(email)};
+        long[] previous = replace ? keysById.put(id, keys) : keysById.putIfAbsent(id, keys);
+        if (!replace && previous != null) {
+            return;
+        }
+
+        UniqueField[] fields = UniqueField.values();
+        for (int i = 0; i < fields.length; i++) {
+            if (previous != null && previous[i] != keys[i]) {
+                idsByKey.get(fields[i]).remove(previous[i], id);
+            }
+            idsByKey.get(fields[i]).put(keys[i], id);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units of the value.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
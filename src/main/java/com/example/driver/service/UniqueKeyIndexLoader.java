@@ -0,0 +1,44 @@
+package com.example.driver.service;
+
+import com.example.driver.repository.DriverKeys;
+import com.example.driver.repository.DriverRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Fills {@link UniqueKeyIndex} from the DRIVER table once the application has started. Requests served
+ * before the load completes fall back to database queries.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class UniqueKeyIndexLoader implements ApplicationRunner {
+    private final UniqueKeyIndex uniqueKeyIndex;
+    private final DriverRepository driverRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!uniqueKeyIndex.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<DriverKeys> keys = driverRepository.streamAllKeys()) {
+                keys.forEach(key -> uniqueKeyIndex.load(key.getId(), key.getLicenseNumber(), key.getVehicleNumber(), key.getEmail()));
+            }
+        });
+        uniqueKeyIndex.markReady();
+        log.info("Unique key index loaded {} drivers in {} ms", uniqueKeyIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,32 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Restarts {@code driver_seq} above the highest id already in the table. V2 started it at a fixed 100, which only
+ * clears the rows seeded by V1; a database that already held larger ids, inserted through the identity column,
+ * would hand out ids that collide with them. Hibernate's pooled optimizer takes each sequence value as the top of a
+ * block of {@value #ALLOCATION_SIZE}, so the next block starts right after the highest id. The identity on
+ * {@code id} is dropped so the sequence is the only source of ids.
+ */
+public class V7__Driver_sequence_restart extends BaseJavaMigration {
+    /** {@code allocationSize} of the driver sequence generator, and the sequence's increment. */
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM driver")) {
+                result.next();
+                maxId = result.getLong(1);
+            }
+            statement.execute("ALTER SEQUENCE driver_seq RESTART WITH " + (maxId + ALLOCATION_SIZE));
+            statement.execute("ALTER TABLE driver ALTER COLUMN id DROP IDENTITY");
+        }
+    }
+}
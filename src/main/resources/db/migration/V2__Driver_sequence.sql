@@ -0,0 +1,4 @@
+-- Sequence-backed ids let Hibernate batch inserts, which IDENTITY columns prevent.
+-- Hibernate's pooled optimizer treats each value as the top of a block of 50, so the
+-- first block handed out is 51..100 and stays clear of the rows seeded by V1.
+CREATE SEQUENCE driver_seq START WITH 100 INCREMENT BY 50;
@@ -0,0 +1,13 @@
+-- Row version for optimistic locking and per-driver ETags.
+ALTER TABLE DRIVER ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- Single-row counter bumped on every write to DRIVER, so the collection ETag
+-- can be checked without reading any driver rows.
+CREATE TABLE DRIVER_TABLE_VERSION
+(
+    id      INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO DRIVER_TABLE_VERSION(id, version)
+VALUES (1, 0);
@@ -0,0 +1,10 @@
+-- Append-only log of driver writes for incremental sync. seq is the driver table version
+-- after the write; it is taken under the row lock of DRIVER_TABLE_VERSION, so entries
+-- become visible in seq order and a reader paging by seq never skips one.
+CREATE TABLE DRIVER_CHANGE
+(
+    seq        BIGINT PRIMARY KEY,
+    driver_id  INT                      NOT NULL,
+    operation  VARCHAR(10)              NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Indexes for /api/driver/search. Each filter is a prefix match, which an index on the
+-- column answers as a range scan; plate filters use the unique index on vehicle_number.
+-- The id after each sort column makes index order match the (column, id) keyset order,
+-- so a sorted page reads only its own rows.
+
+-- The domain has its own column so that a domain prefix is also a column prefix.
+ALTER TABLE DRIVER ADD COLUMN email_domain VARCHAR(100) GENERATED ALWAYS AS (SUBSTRING(email FROM POSITION('@', email) + 1));
+
+CREATE INDEX idx_driver_name ON DRIVER (driver_name, id);
+CREATE INDEX idx_driver_vehicle_model ON DRIVER (vehicle_model, id);
+CREATE INDEX idx_driver_email_domain ON DRIVER (email_domain, id);
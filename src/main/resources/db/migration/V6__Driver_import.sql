@@ -0,0 +1,28 @@
+-- Bulk import jobs. The uploaded file is kept until its job completes. rows_read counts the
+-- data rows already committed, together with their drivers and errors, so a job that stopped
+-- part way resumes with the row after it.
+CREATE TABLE DRIVER_IMPORT
+(
+    id             VARCHAR(36) PRIMARY KEY,
+    format         VARCHAR(10)              NOT NULL,
+    status         VARCHAR(10)              NOT NULL,
+    rows_read      BIGINT DEFAULT 0         NOT NULL,
+    rows_imported  BIGINT DEFAULT 0         NOT NULL,
+    rows_failed    BIGINT DEFAULT 0         NOT NULL,
+    elapsed_millis BIGINT DEFAULT 0         NOT NULL,
+    error          VARCHAR(1000),
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at     TIMESTAMP WITH TIME ZONE,
+    finished_at    TIMESTAMP WITH TIME ZONE
+);
+
+-- Rows an import rejected. row_num counts data rows from 1, without the CSV header;
+-- errors maps each offending field to its message.
+CREATE TABLE DRIVER_IMPORT_ERROR
+(
+    import_id VARCHAR(36) NOT NULL,
+    row_num   BIGINT      NOT NULL,
+    status    INT         NOT NULL,
+    errors    JSON        NOT NULL,
+    PRIMARY KEY (import_id, row_num)
+);
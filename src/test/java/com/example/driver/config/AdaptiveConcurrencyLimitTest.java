@@ -0,0 +1,55 @@
+package com.example.driver.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long MILLIS = 1_000_000;
+
+    /** Runs {@code requests} requests one after another, each reporting the limit as fully used. */
+    private static void run(AdaptiveConcurrencyLimit limit, int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(latencyNanos, limit.limit());
+        }
+    }
+
+    @Test
+    @DisplayName("Given: steady latency under load, When: requests complete, Then: grow the limit up to the maximum")
+    void growsWhileLatencyHolds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 20, 1.5);
+
+        run(limit, 200, 10 * MILLIS);
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Given: latency rises well above usual, When: requests complete, Then: shrink the limit down to the minimum")
+    void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20, 1.5);
+        run(limit, 100, 10 * MILLIS);
+        int before = limit.limit();
+
+        run(limit, 20, 100 * MILLIS);
+        assertThat(limit.limit()).isLessThan(before);
+
+        run(limit, 200, 100 * MILLIS);
+        assertThat(limit.limit()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given: limit reached, When: acquire, Then: refuse until a permit is released")
+    void refusesBeyondLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 20, 1.5);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        limit.release(MILLIS, 2);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+}
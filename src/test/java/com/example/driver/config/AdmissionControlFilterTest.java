@@ -0,0 +1,123 @@
+package com.example.driver.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+    private final AtomicLong now = new AtomicLong();
+    private final FilterChain ok = (request, response) -> ((HttpServletResponse) response).setStatus(200);
+    private final FilterChain startAsync = (request, response) -> request.startAsync();
+
+    private AdmissionControlFilter filter(double rate, int burst, int initialLimit) {
+        return new AdmissionControlFilter(new AdmissionControlProperties(true, List.of("/actuator/**"), "X-API-Key", Set.of("a", "b"), rate, burst,
+                1000, List.of("/api/driver/all", "/api/driver"), Set.of("GET", "HEAD"), initialLimit, 1, 10, 1.5), now::get);
+    }
+
+    private static MockHttpServletRequest request(String path, String apiKey) {
+        return request("GET", path, apiKey);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setAsyncSupported(true);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse send(AdmissionControlFilter filter, MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Given: client used up its burst, When: request, Then: 429 with Retry-After while other clients pass")
+    void rateLimitsPerClient() throws Exception {
+        AdmissionControlFilter filter = filter(1, 2, 10);
+
+        assertThat(send(filter, request("/api/driver/1", "a"), ok).getStatus()).isEqualTo(200);
+        assertThat(send(filter, request("/api/driver/1", "a"), ok).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = send(filter, request("/api/driver/1", "a"), ok);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).isEqualTo("{\"message\":\"Too many requests\"}");
+        assertThat(send(filter, request("/api/driver/1", "b"), ok).getStatus()).isEqualTo(200);
+        assertThat(send(filter, request("/api/driver/1", null), ok).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Given: API key that was not issued, When: request, Then: limit it with the other requests from its address")
+    void unknownApiKeyUsesAddress() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10);
+
+        assertThat(send(filter, request("/api/driver/1", "made-up"), ok).getStatus()).isEqualTo(200);
+
+        assertThat(send(filter, request("/api/driver/1", "another"), ok).getStatus()).isEqualTo(429);
+        assertThat(send(filter, request("/api/driver/1", null), ok).getStatus()).isEqualTo(429);
+        assertThat(send(filter, request("/api/driver/1", "a"), ok).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Given: client out of tokens, When: time passes, Then: tokens refill at the rate")
+    void refillsAtRate() throws Exception {
+        AdmissionControlFilter filter = filter(10, 1, 10);
+        send(filter, request("/api/driver/1", "a"), ok);
+        assertThat(send(filter, request("/api/driver/1", "a"), ok).getStatus()).isEqualTo(429);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(send(filter, request("/api/driver/1", "a"), ok).getStatus()).isEqualTo(200);
+        assertThat(send(filter, request("/api/driver/1", "a"), ok).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Given: limited path at its concurrency limit, When: request, Then: 503 until a streamed response completes")
+    void limitsConcurrency() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 1);
+        MockHttpServletRequest streaming = request("/api/driver/all", null);
+        send(filter, streaming, startAsync);
+
+        MockHttpServletResponse rejected = send(filter, request("/api/driver/all", null), ok);
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(send(filter, request("/api/driver/1", null), ok).getStatus()).isEqualTo(200);
+
+        streaming.getAsyncContext().complete();
+
+        assertThat(send(filter, request("/api/driver/all", null), ok).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Given: limited path at its concurrency limit, When: POST to it, Then: the write is not limited")
+    void doesNotLimitWrites() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 1);
+        MockHttpServletRequest streaming = request("/api/driver", null);
+        send(filter, streaming, startAsync);
+
+        assertThat(send(filter, request("/api/driver", null), ok).getStatus()).isEqualTo(503);
+        assertThat(send(filter, request("POST", "/api/driver", null), ok).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Given: excluded path, When: client is out of tokens, Then: request passes")
+    void excludedPath() throws Exception {
+        AdmissionControlFilter filter = filter(1, 1, 10);
+        send(filter, request("/api/driver/1", null), ok);
+
+        assertThat(send(filter, request("/actuator/health", null), ok).getStatus()).isEqualTo(200);
+    }
+}
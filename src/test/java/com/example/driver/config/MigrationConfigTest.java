@@ -0,0 +1,41 @@
+package com.example.driver.config;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MigrationConfigTest {
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migration-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    @DisplayName("Given: empty database, When: check the schema, Then: not current")
+    void emptyDatabaseIsNotCurrent() {
+        assertThat(MigrationConfig.isCurrent(Flyway.configure().dataSource(dataSource).load())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given: a newer bundled migration, When: check the schema, Then: not current")
+    void olderSchemaIsNotCurrent() {
+        Flyway.configure().dataSource(dataSource).target("5").load().migrate();
+
+        assertThat(MigrationConfig.isCurrent(Flyway.configure().dataSource(dataSource).load())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given: every bundled migration applied, When: check the schema, Then: current")
+    void migratedSchemaIsCurrent() {
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertThat(MigrationConfig.isCurrent(Flyway.configure().dataSource(dataSource).load())).isTrue();
+    }
+}
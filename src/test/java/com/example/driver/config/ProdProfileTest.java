@@ -0,0 +1,64 @@
+package com.example.driver.config;
+
+import com.example.driver.service.DriverService;
+import com.example.driver.service.ReactiveDriverService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application with the prod profile on a file-backed H2, pointed at a temporary directory through
+ * the same settings an operator would use. R2DBC is not configured separately and follows the JDBC URL.
+ */
+@SpringBootTest
+@ActiveProfiles("prod")
+class ProdProfileTest {
+    @TempDir
+    static Path dataDirectory;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private ReactiveDriverService reactiveDriverService;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dataDirectory.resolve("driver"));
+        registry.add("DRIVER_DB_POOL_SIZE", () -> "4");
+    }
+
+    @Test
+    @DisplayName("Given: prod profile, When: the application starts, Then: JPA and R2DBC share the file database and the pool is sized and leak-checked")
+    void startsOnFileDatabase() {
+        assertThat(Files.exists(dataDirectory.resolve("driver.mv.db"))).isTrue();
+        assertThat(driverService.getDriverById(1)).isPresent();
+        assertThat(reactiveDriverService.getDriverById(2).block()).isNotNull();
+
+        assertThat(dataSource.getPoolName()).isEqualTo("driver");
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(4);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(4);
+        assertThat(dataSource.getLeakDetectionThreshold()).isEqualTo(20000);
+    }
+
+    @Test
+    @DisplayName("Given: prod profile, When: statements run, Then: SQL is not logged")
+    void sqlLoggingOff() {
+        assertThat(LoggerFactory.getLogger("org.hibernate.SQL").isDebugEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.driver.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+    private final List<ReplicaRoutingDataSource> dataSources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRouting.end();
+        dataSources.forEach(ReplicaRoutingDataSource::close);
+    }
+
+    private static HikariDataSource replica(String url) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(url);
+        replica.setConnectionTimeout(250);
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+
+    private ReplicaRoutingDataSource routing(String... replicaUrls) {
+        JdbcDataSource primary = new JdbcDataSource();
+        primary.setURL("jdbc:h2:mem:primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            replicas.add(replica(url));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1));
+        dataSources.add(routing);
+        return routing;
+    }
+
+    private static String database(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT DATABASE()")) {
+            result.next();
+            return result.getString(1).toLowerCase();
+        }
+    }
+
+    @Test
+    @DisplayName("Given: replicas, When: connect outside a read-only transaction, Then: use the primary")
+    void writesGoToPrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing("jdbc:h2:mem:replica1");
+
+        assertThat(database(routing)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Given: two idle replicas, When: connect in read-only transactions, Then: take turns between them")
+    void readsAreBalancedAcrossReplicas() throws Exception {
+        ReplicaRoutingDataSource routing = routing("jdbc:h2:mem:replica1", "jdbc:h2:mem:replica2");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Set<String> databases = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            databases.add(database(routing));
+        }
+
+        assertThat(databases).containsExactlyInAnyOrder("replica1", "replica2");
+    }
+
+    @Test
+    @DisplayName("Given: a replica that is down, When: read, Then: fail over to the other replica and leave the down one out")
+    void failsOverToHealthyReplica() throws Exception {
+        ReplicaRoutingDataSource routing = routing("jdbc:h2:mem:down;IFEXISTS=TRUE", "jdbc:h2:mem:replica2");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        for (int i = 0; i < 4; i++) {
+            long start = System.nanoTime();
+            assertThat(database(routing)).isEqualTo("replica2");
+            if (i > 0) {
+                // No more waiting for the down replica's connection timeout
+                assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Given: every replica down, When: read, Then: read from the primary")
+    void fallsBackToPrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing("jdbc:h2:mem:down;IFEXISTS=TRUE");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(database(routing)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Given: a request scope, When: read repeatedly, Then: stay on one replica, or on the primary after a write")
+    void requestScope() throws Exception {
+        ReplicaRoutingDataSource routing = routing("jdbc:h2:mem:replica1", "jdbc:h2:mem:replica2");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRouting.begin(false);
+        String first = database(routing);
+        assertThat(database(routing)).isEqualTo(first);
+        assertThat(database(routing)).isEqualTo(first);
+        ReplicaRouting.end();
+
+        ReplicaRouting.begin(true);
+        assertThat(database(routing)).isEqualTo("primary");
+    }
+}
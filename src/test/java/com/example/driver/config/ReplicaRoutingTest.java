@@ -0,0 +1,112 @@
+package com.example.driver.config;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.service.DriverCache;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application on two H2 databases standing in for a primary and its replica. The replica is migrated
+ * separately and then diverges, so each response shows which of the two served it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DriverCache driverCache;
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        JdbcDataSource replica = new JdbcDataSource();
+        replica.setURL(REPLICA_URL);
+        replica.setUser("sa");
+        Flyway.configure().dataSource(replica).load().migrate();
+        new JdbcTemplate(replica).update("update driver set driver_name = 'Replica Doe' where id = 1");
+
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:h2:mem:///routing-primary");
+        registry.add("driver.replica.urls", () -> REPLICA_URL);
+        registry.add("driver.admission.api-keys", () -> "reader,writer,editor,other");
+    }
+
+    @Test
+    @DisplayName("Given: a replica, When: read, Then: the replica answers")
+    void readsFromReplica() throws Exception {
+        mockMvc.perform(get("/api/driver/1").header("X-API-Key", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replica Doe"));
+        mockMvc.perform(get("/api/driver").param("id", "1", "2").header("X-API-Key", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Replica Doe"));
+    }
+
+    @Test
+    @DisplayName("Given: a client that just wrote, When: it reads, Then: the primary answers it while others still read the replica")
+    void readsOwnWritesFromPrimary() throws Exception {
+        mockMvc.perform(put("/api/driver/3").header("X-API-Key", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Robert Brown\",\"licenseNumber\":\"D1122334\",\"vehicleModel\":\"Ford Focus\"," +
+                                "\"vehicleNumber\":\"LMN9123\",\"email\":\"robert.brown@example.com\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/driver/1").header("X-API-Key", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"));
+        mockMvc.perform(get("/api/driver").param("id", "1", "2").header("X-API-Key", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("John Doe"));
+        mockMvc.perform(get("/api/driver/1").header("X-API-Key", "other"))
+                .andExpect(jsonPath("$.name").value("Replica Doe"));
+    }
+
+    @Test
+    @DisplayName("Given: a driver just updated, When: read while the replica lags, Then: the writer bypasses the cache and the replica's row is not cached")
+    void cacheKeepsOwnWrites() throws Exception {
+        mockMvc.perform(put("/api/driver/2").header("X-API-Key", "editor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Jane Brown\",\"licenseNumber\":\"D7654321\",\"vehicleModel\":\"Honda Civic\"," +
+                                "\"vehicleNumber\":\"XYZ5678\",\"email\":\"jane.smith@example.com\"}"))
+                .andExpect(status().isOk());
+
+        // The replica never receives the update, like one that lags behind
+        mockMvc.perform(get("/api/driver/2").header("X-API-Key", "other"))
+                .andExpect(jsonPath("$.name").value("Jane Smith"));
+        assertThat(driverCache.getNativeCache().getIfPresent(2)).isNull();
+
+        driverCache.put(DriverDTO.builder()
+                .id(2)
+                .name("Jane Smith")
+                .licenseNumber("D7654321")
+                .vehicleModel("Honda Civic")
+                .vehicleNumber("XYZ5678")
+                .email("jane.smith@example.com")
+                .build());
+        mockMvc.perform(get("/api/driver/2").header("X-API-Key", "editor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Jane Brown"));
+        mockMvc.perform(get("/api/driver").param("id", "2").header("X-API-Key", "editor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Jane Brown"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.driver.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RestLoggingFilterTest {
+    private static final String BODY = "{\"name\":\"Robert Brown\",\"email\":\"robert.brown@example.com\"}";
+
+    private final FilterChain writeBody = (request, response) -> {
+        response.setContentType("application/json");
+        response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+    };
+
+    private static RestLoggingProperties properties(RestLoggingProperties.Mode mode, List<String> exclude, int maxBodySize, double sampleRate) {
+        return new RestLoggingProperties(mode, List.of("/api/**"), exclude, List.of("/api/driver/all"),
+                DataSize.ofBytes(maxBodySize), sampleRate);
+    }
+
+    @Test
+    @DisplayName("Given: body mode, When: body exceeds max size, Then: client gets the full body and the log the truncated start")
+    void bodyModeTruncatesLoggedBody(CapturedOutput output) throws Exception {
+        RestLoggingFilter filter = new RestLoggingFilter(properties(RestLoggingProperties.Mode.BODY, List.of(), 10, 1.0));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/driver/1"), response, writeBody);
+
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+        assertThat(output).contains("METHOD = GET; REQUESTURI = /api/driver/1; STATUS = 200")
+                .contains("RESPONSE = {\"name\":\"R... (" + BODY.length() + " bytes)");
+    }
+
+    @Test
+    @DisplayName("Given: access mode, When: request, Then: log the access line without the body")
+    void accessModeSkipsBody(CapturedOutput output) throws Exception {
+        RestLoggingFilter filter = new RestLoggingFilter(properties(RestLoggingProperties.Mode.ACCESS, List.of(), 4096, 1.0));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/driver/1"), response, writeBody);
+
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+        assertThat(output).contains("REQUESTURI = /api/driver/1").doesNotContain("RESPONSE =");
+    }
+
+    @Test
+    @DisplayName("Given: body mode, When: path is body-excluded or not sampled, Then: log only the access line")
+    void bodyExcludedAndUnsampled(CapturedOutput output) throws Exception {
+        new RestLoggingFilter(properties(RestLoggingProperties.Mode.BODY, List.of(), 4096, 1.0))
+                .doFilter(new MockHttpServletRequest("GET", "/api/driver/all"), new MockHttpServletResponse(), writeBody);
+        new RestLoggingFilter(properties(RestLoggingProperties.Mode.BODY, List.of(), 4096, 0.0))
+                .doFilter(new MockHttpServletRequest("GET", "/api/driver/1"), new MockHttpServletResponse(), writeBody);
+
+        assertThat(output).contains("REQUESTURI = /api/driver/all", "REQUESTURI = /api/driver/1").doesNotContain("RESPONSE =");
+    }
+
+    @Test
+    @DisplayName("Given: excluded path, When: request, Then: nothing is logged")
+    void excludedPath(CapturedOutput output) throws Exception {
+        RestLoggingFilter filter = new RestLoggingFilter(properties(RestLoggingProperties.Mode.BODY, List.of("/api/driver/bulk/**"), 4096, 1.0));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/driver/bulk"), response, writeBody);
+
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+        assertThat(output).doesNotContain("REQUESTURI");
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.driver.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps the application DataSource so tests can count the statements a call sends and replay them,
+ * e.g. under EXPLAIN. Counts are per thread; the recorded statements are not.
+ */
+@TestConfiguration
+public class StatementRecordingConfig {
+    private static final String DATA_SOURCE_NAME = "driver";
+    private static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    public record RecordedStatement(String sql, Object[] parameters) {
+    }
+
+    @Bean
+    static BeanPostProcessor recordingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the DataSource the application uses; the pools behind it would count every statement again
+                return bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource) && beanName.equals("dataSource")
+                        ? ProxyDataSourceBuilder.create(dataSource)
+                                .name(DATA_SOURCE_NAME)
+                                .countQuery()
+                                .listener(new Recorder())
+                                .build()
+                        : bean;
+            }
+        };
+    }
+
+    public static void clear() {
+        QueryCountHolder.clear();
+        STATEMENTS.clear();
+    }
+
+    public static QueryCount queryCount() {
+        return QueryCountHolder.get(DATA_SOURCE_NAME);
+    }
+
+    public static List<RecordedStatement> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    private static class Recorder implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                if (queryInfo.getParametersList().isEmpty()) {
+                    STATEMENTS.add(new RecordedStatement(queryInfo.getQuery(), new Object[0]));
+                }
+                for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
+                    // args are (index, value) for the setXxx calls on a prepared statement
+                    Object[] values = parameters.stream()
+                            .sorted(Comparator.comparing(operation -> (Integer) operation.getArgs()[0]))
+                            .map(operation -> operation.getArgs()[1])
+                            .toArray();
+                    STATEMENTS.add(new RecordedStatement(queryInfo.getQuery(), values));
+                }
+            }
+        }
+    }
+}
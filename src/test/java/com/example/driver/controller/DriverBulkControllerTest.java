@@ -0,0 +1,125 @@
+package com.example.driver.controller;
+
+import com.example.driver.config.BulkProperties;
+import com.example.driver.dto.BulkResultDTO;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.mock.MockDriver;
+import com.example.driver.service.DriverBulkService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DriverBulkController.class)
+@EnableConfigurationProperties(BulkProperties.class)
+@TestPropertySource(properties = {"driver.bulk.batch-size=1", "driver.bulk.max-items=2"})
+class DriverBulkControllerTest {
+    private final static String BULK_URL = "/api/driver/bulk";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private DriverBulkService driverBulkService;
+
+    private static BulkResultDTO created(int index, DriverDTO driverDTO) {
+        return BulkResultDTO.builder().index(index).id(driverDTO.id()).status(201).driver(driverDTO).build();
+    }
+
+    @Test
+    @DisplayName("Given: JSON array, When: POST /api/driver/bulk, Then: return 200 status with per-item results")
+    void createDrivers() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        List<BulkResultDTO> results = List.of(created(0, driverDTO));
+        when(driverBulkService.createDrivers(anyList())).thenReturn(results);
+
+        mockMvc.perform(post(BULK_URL)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(List.of(MockDriver.getDriverDTO()))))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+
+        verify(driverBulkService).createDrivers(List.of(MockDriver.getDriverDTO()));
+    }
+
+    @Test
+    @DisplayName("Given: JSON array above max-items, When: POST /api/driver/bulk, Then: return 400 status")
+    void createDriversTooManyItems() throws Exception {
+        mockMvc.perform(post(BULK_URL)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(Collections.nCopies(3, MockDriver.getDriverDTO()))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(driverBulkService);
+    }
+
+    @Test
+    @DisplayName("Given: NDJSON body, When: POST /api/driver/bulk, Then: process it batch by batch and answer in NDJSON")
+    void createDriversNdjson() throws Exception {
+        DriverDTO first = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        DriverDTO second = MockDriver.getDriverDTO(2, "John Doe", "john.doe@example.com", "D1234567", "Toyota Corolla", "ABC1234");
+        when(driverBulkService.createBatch(anyList(), anyInt()))
+                .thenReturn(List.of(created(0, first)))
+                .thenReturn(List.of(created(1, second)));
+
+        mockMvc.perform(post(BULK_URL)
+                        .contentType(MediaType.APPLICATION_NDJSON_VALUE)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(created(0, first)) + "\n"
+                        + objectMapper.writeValueAsString(created(1, second)) + "\n"));
+
+        verify(driverBulkService).createBatch(List.of(first), 0);
+        verify(driverBulkService).createBatch(List.of(second), 1);
+    }
+
+    @Test
+    @DisplayName("Given: JSON array, When: PUT /api/driver/bulk, Then: return 200 status with per-item results")
+    void updateDrivers() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        List<BulkResultDTO> results = List.of(BulkResultDTO.builder().index(0).id(1).status(200).driver(driverDTO).build());
+        when(driverBulkService.updateDrivers(anyList())).thenReturn(results);
+
+        mockMvc.perform(put(BULK_URL)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(List.of(driverDTO))))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+
+        verify(driverBulkService).updateDrivers(List.of(driverDTO));
+    }
+
+    @Test
+    @DisplayName("Given: ids, When: DELETE /api/driver/bulk, Then: return 200 status with per-item results")
+    void deleteDrivers() throws Exception {
+        List<BulkResultDTO> results = List.of(BulkResultDTO.builder().index(0).id(1).status(200).build());
+        when(driverBulkService.deleteDrivers(anyList())).thenReturn(results);
+
+        mockMvc.perform(delete(BULK_URL)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+
+        verify(driverBulkService).deleteDrivers(List.of(1));
+    }
+}
@@ -1,31 +1,56 @@
 package com.example.driver.controller;
 
+import com.example.driver.config.IdempotencyProperties;
+import com.example.driver.config.MessageFormatConfig;
+import com.example.driver.dto.DriverChangeDTO;
+import com.example.driver.dto.DriverChangePageDTO;
 import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.dto.DriverPageDTO;
+import com.example.driver.dto.DriverSearchDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.PreconditionFailedException;
 import com.example.driver.exception.UniqueException;
 import com.example.driver.mock.MockDriver;
+import com.example.driver.service.DriverChangeFeed;
 import com.example.driver.service.DriverService;
+import com.example.driver.service.IdempotencyStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.function.Consumer;
+
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(DriverController.class)
+@Import(IdempotencyStore.class)
+@EnableConfigurationProperties(IdempotencyProperties.class)
 class DriverControllerTest {
     private final static String DRIVER_URL = "/api/driver";
 
@@ -38,6 +63,9 @@ class DriverControllerTest {
     @MockBean
     private DriverService driverService;
 
+    @MockBean
+    private DriverChangeFeed driverChangeFeed;
+
     private static Stream<Arguments> invalidParam() {
         return Stream.of(
                 Arguments.of("blank request param", "?id= "),
@@ -88,6 +116,31 @@ class DriverControllerTest {
         verifyNoInteractions(driverService);
     }
 
+    @Test
+    @DisplayName("Given: license number found, When: GET /api/driver/license/D1122334, Then: return 200 status with driverDTO")
+    void getDriverByLicenseNumber() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        when(driverService.getDriverByLicenseNumber("D1122334"))
+                .thenReturn(Optional.of(driverDTO));
+
+        mockMvc.perform(get(DRIVER_URL + "/license/D1122334"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(driverDTO)));
+    }
+
+    @Test
+    @DisplayName("Given: vehicle number not found, When: GET /api/driver/vehicle/XYZ0000, Then: return 404 status with Not Found")
+    void getDriverByVehicleNumberNotFound() throws Exception {
+        when(driverService.getDriverByVehicleNumber("XYZ0000"))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(get(DRIVER_URL + "/vehicle/XYZ0000"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Driver with Vehicle Number XYZ0000 not found"));
+
+        verify(driverService).getDriverByVehicleNumber("XYZ0000");
+    }
+
     @Test
     @DisplayName("Given: driverId not found, When: GET /api/driver/9999, Then: return 404 status with Not Found")
     void getDriverByDriverIdNotFound() throws Exception {
@@ -103,14 +156,176 @@ class DriverControllerTest {
     void getAllDrivers() throws Exception {
         List<DriverDTO> driverDTOList =
                 List.of(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
-        when(driverService.getAllDrivers())
+        when(driverService.getAllDrivers(DriverField.ALL))
                 .thenReturn(driverDTOList);
 
         mockMvc.perform(get(DRIVER_URL + "/all"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(driverDTOList)));
 
-        verify(driverService).getAllDrivers();
+        verify(driverService).getAllDrivers(DriverField.ALL);
+    }
+
+    @Test
+    @DisplayName("Given: prefix filters, When: GET /api/driver/search, Then: return 200 status with the matching page")
+    void searchDrivers() throws Exception {
+        DriverPageDTO page = DriverPageDTO.builder()
+                .drivers(List.of(MockDriver.getDriverDTO(3, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123")))
+                .build();
+        DriverSearchDTO filter = DriverSearchDTO.builder().name("Rob").emailDomain("example").plate("LMN").build();
+        when(driverService.searchDrivers(filter, "name", null, 20, DriverField.ALL)).thenReturn(page);
+
+        mockMvc.perform(get(DRIVER_URL + "/search?name=Rob&emailDomain=example&plate=LMN&sort=name&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.drivers[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Given: since, When: GET /api/driver/changes?since=3, Then: return 200 status with changes and nextSince")
+    void getChanges() throws Exception {
+        DriverChangePageDTO page = DriverChangePageDTO.builder()
+                .changes(List.of(DriverChangeDTO.builder().seq(4).operation("DELETE").driverId(3).build()))
+                .nextSince(4)
+                .build();
+        when(driverService.getChanges(3, 100)).thenReturn(page);
+
+        mockMvc.perform(get(DRIVER_URL + "/changes?since=3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].operation").value("DELETE"))
+                .andExpect(jsonPath("$.changes[0].driver").doesNotExist())
+                .andExpect(jsonPath("$.nextSince").value(4));
+    }
+
+    @Test
+    @DisplayName("Given: If-None-Match with the current driver ETag, When: GET /api/driver/1, Then: return 304 status without body")
+    void getDriverByIdNotModified() throws Exception {
+        DriverDTO driverDTO = DriverDTO.builder().id(1).name("Robert Brown").version(2L).build();
+        when(driverService.getDriverById(1)).thenReturn(Optional.of(driverDTO));
+
+        mockMvc.perform(get(DRIVER_URL + "/1").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-2\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Given: If-None-Match with the current table ETag, When: GET /api/driver/all, Then: return 304 status without loading drivers")
+    void getAllDriversNotModified() throws Exception {
+        when(driverService.getTableVersion()).thenReturn(7L);
+
+        mockMvc.perform(get(DRIVER_URL + "/all").header("If-None-Match", "\"drivers-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"drivers-7\""));
+
+        verify(driverService, never()).getAllDrivers(any());
+    }
+
+    @Test
+    @DisplayName("Given: Accept application/cbor, When: GET /api/driver/all, Then: return the driverDTO list encoded as CBOR")
+    void getAllDriversAsCbor() throws Exception {
+        List<DriverDTO> driverDTOList =
+                List.of(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
+        when(driverService.getAllDrivers(DriverField.ALL)).thenReturn(driverDTOList);
+
+        byte[] body = mockMvc.perform(get(DRIVER_URL + "/all").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readValue(body, DriverDTO[].class)).containsExactlyElementsOf(driverDTOList);
+    }
+
+    @Test
+    @DisplayName("Given: Accept application/x-jackson-smile, When: GET /api/driver/page, Then: return the page encoded as Smile")
+    void getDriverPageAsSmile() throws Exception {
+        DriverPageDTO driverPageDTO = DriverPageDTO.builder()
+                .drivers(List.of(DriverDTO.builder().id(1).name("Robert Brown").build()))
+                .nextCursor("MQ")
+                .build();
+        when(driverService.getDriverPage(null, 1, EnumSet.of(DriverField.ID, DriverField.NAME))).thenReturn(driverPageDTO);
+
+        byte[] body = mockMvc.perform(get(DRIVER_URL + "/page?size=1&fields=id,name").accept(MessageFormatConfig.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MessageFormatConfig.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new SmileMapper().readValue(body, DriverPageDTO.class)).isEqualTo(driverPageDTO);
+    }
+
+    @Test
+    @DisplayName("Given: fields=id,vehicleNumber, When: GET /api/driver/all,Then: return only those properties under an ETag for the selection")
+    void getAllDriversWithFields() throws Exception {
+        Set<DriverField> fields = EnumSet.of(DriverField.ID, DriverField.VEHICLE_NUMBER);
+        when(driverService.getTableVersion()).thenReturn(7L);
+        when(driverService.getAllDrivers(fields))
+                .thenReturn(List.of(DriverDTO.builder().id(1).vehicleNumber("LMN9123").build()));
+
+        mockMvc.perform(get(DRIVER_URL + "/all?fields=id,vehicleNumber"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"drivers-7.id.vehicleNumber\""))
+                .andExpect(content().json("[{\"id\":1,\"vehicleNumber\":\"LMN9123\"}]", true));
+    }
+
+    @Test
+    @DisplayName("Given: unknown field, When: GET /api/driver/page?fields=id,phone, Then: return 400 status with Bad Request")
+    void getDriverPageUnknownField() throws Exception {
+        mockMvc.perform(get(DRIVER_URL + "/page?fields=id,phone"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(
+                        "Unknown field 'phone', expected any of id, name, email, licenseNumber, vehicleModel, vehicleNumber, version"));
+
+        verifyNoInteractions(driverService);
+    }
+
+    @Test
+    @DisplayName("Given: cursor and size, When: GET /api/driver/page, Then: return 200 status with page and next cursor")
+    void getDriverPage() throws Exception {
+        DriverPageDTO driverPageDTO = DriverPageDTO.builder()
+                .drivers(List.of(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123")))
+                .nextCursor("MQ")
+                .build();
+        when(driverService.getDriverPage(isNull(), anyInt(), eq(DriverField.ALL))).thenReturn(driverPageDTO);
+
+        mockMvc.perform(get(DRIVER_URL + "/page?size=1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(driverPageDTO)));
+
+        verify(driverService).getDriverPage(null, 1, DriverField.ALL);
+    }
+
+    @Test
+    @DisplayName("Given: invalid cursor, When: GET /api/driver/page, Then: return 400 status with Bad Request")
+    void getDriverPageInvalidCursor() throws Exception {
+        when(driverService.getDriverPage("bad", 100, DriverField.ALL)).thenThrow(new BadRequestException("Invalid cursor: bad"));
+
+        mockMvc.perform(get(DRIVER_URL + "/page?cursor=bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: bad"));
+    }
+
+    @Test
+    @DisplayName("Given: -, When: GET /api/driver/stream, Then: return 200 status with one driverDTO per line")
+    void streamAllDrivers() throws Exception {
+        DriverDTO first = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        DriverDTO second = MockDriver.getDriverDTO(2, "John Doe", "john.doe@example.com", "D1234567", "Toyota Corolla", "ABC1234");
+        doAnswer(invocation -> {
+            Consumer<DriverDTO> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(driverService).streamAllDrivers(eq(DriverField.ALL), any());
+
+        MvcResult mvcResult = mockMvc.perform(get(DRIVER_URL + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n"
+                        + objectMapper.writeValueAsString(second) + "\n"));
     }
 
     @Test
@@ -149,6 +364,36 @@ class DriverControllerTest {
         verify(driverService).getDriverByIds(anyList());
     }
 
+    @Test
+    @DisplayName("Given: no id param, When: GET /api/driver, Then: return 200 with empty list")
+    void getDriverByIdsWithoutParam() throws Exception {
+        mockMvc.perform(get(DRIVER_URL))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"))
+                .andExpect(header().doesNotExist("X-MISSING-SET"));
+
+        verify(driverService).getDriverByIds(List.of());
+    }
+
+    @Test
+    @DisplayName("Given: repeated missing ids, When: GET /api/driver?id=7&id=5&id=7, Then: list each missing id once in request order")
+    void getDriverByIdsRepeatedMissing() throws Exception {
+        mockMvc.perform(get(DRIVER_URL + "?id=7&id=5&id=7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-MISSING-SET", "7,5"));
+    }
+
+    @Test
+    @DisplayName("Given: too many ids, When: GET /api/driver?id=..., Then: return 400 status with Bad Request")
+    void getDriverByIdsTooMany() throws Exception {
+        when(driverService.getDriverByIds(anyList()))
+                .thenThrow(new BadRequestException("At most 1000 distinct ids can be requested at once"));
+
+        mockMvc.perform(get(DRIVER_URL + "?id=1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 1000 distinct ids can be requested at once"));
+    }
+
     @Test
     @DisplayName("Given: driverIds one found and one not found, When: GET /api/driver?id=1&id=999, Then: Then: return 200 with header X-MISSING-SET")
     void getDriverByIdsOneFoundAndOneNotFound() throws Exception {
@@ -165,6 +410,18 @@ class DriverControllerTest {
         verify(driverService).getDriverByIds(List.of(1, 999));
     }
 
+    @Test
+    @DisplayName("Given: fields=name, When: GET /api/driver?id=1&id=999, Then: return only names and still report the missing id")
+    void getDriverByIdsWithFields() throws Exception {
+        when(driverService.getDriverByIds(anyList())).thenReturn(
+                List.of(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123")));
+
+        mockMvc.perform(get(DRIVER_URL + "?id=1&id=999&fields=name"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"name\":\"Robert Brown\"}]", true))
+                .andExpect(header().string("X-MISSING-SET", "999"));
+    }
+
     @Test
     @DisplayName("Given: driver, When: POST /api/driver , Then: return 201 status created with driverDTO")
     void createDriver() throws Exception {
@@ -181,6 +438,47 @@ class DriverControllerTest {
         verify(driverService).createDriver(any(DriverDTO.class));
     }
 
+    @Test
+    @DisplayName("Given: Idempotency-Key already used, When: POST /api/driver again, Then: replay the 201 response without creating another driver")
+    void createDriverReplaysIdempotentRequest() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        when(driverService.createDriver(any(DriverDTO.class))).thenReturn(Optional.of(driverDTO));
+
+        mockMvc.perform(post(DRIVER_URL).header("Idempotency-Key", "create-robert")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(driverDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post(DRIVER_URL).header("Idempotency-Key", "create-robert")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(driverDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("ETag", DriverETag.of(driverDTO)))
+                .andExpect(content().json(objectMapper.writeValueAsString(driverDTO)));
+
+        verify(driverService, times(1)).createDriver(any(DriverDTO.class));
+    }
+
+    @Test
+    @DisplayName("Given: Idempotency-Key used for another driver, When: POST /api/driver, Then: return 422 status without creating")
+    void createDriverIdempotencyKeyReused() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        when(driverService.createDriver(any(DriverDTO.class))).thenReturn(Optional.of(driverDTO));
+
+        mockMvc.perform(post(DRIVER_URL).header("Idempotency-Key", "create-reused")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(driverDTO)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post(DRIVER_URL).header("Idempotency-Key", "create-reused")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(MockDriver.getDriverDTO(2, "John Doe", "john.doe@example.com", "D1234567", "Toyota Corolla", "ABC1234"))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key create-reused was already used for a different request"));
+
+        verify(driverService, times(1)).createDriver(any(DriverDTO.class));
+    }
+
     @ParameterizedTest(name = "{0}")
     @MethodSource("emptyCreateValue")
     void createDriverEmptyValue(String scenario, DriverDTO driverDTO, String expectedMessage) throws Exception {
@@ -213,15 +511,58 @@ class DriverControllerTest {
     @Test
     @DisplayName("Given: driverId found, When: DELETE /api/driver/1, Then: return 200 status with success message")
     void deleteDriver() throws Exception {
-        DriverDTO driverDTO =
-                MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
-        when(driverService.getDriverById(1)).thenReturn(Optional.of(driverDTO));
+        when(driverService.deleteDriver(1)).thenReturn(true);
 
         mockMvc.perform(delete(DRIVER_URL + "/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Driver with ID 1 successfully deleted."));
 
         verify(driverService).deleteDriver(1);
+        verify(driverService, never()).getDriverById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Given: If-Match with the current driver ETag, When: PUT /api/driver/1, Then: update conditionally and return the new ETag")
+    void updateDriverIfMatch() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        DriverDTO updated = DriverDTO.builder().id(1).name("Robert Brown").version(3L).build();
+        when(driverService.updateDriver(eq(1), any(DriverDTO.class), eq(List.of(2L)))).thenReturn(Optional.of(updated));
+
+        mockMvc.perform(put(DRIVER_URL + "/1")
+                        .header("If-Match", "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(driverDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""));
+
+        verify(driverService, never()).updateDriver(anyInt(), any(DriverDTO.class));
+    }
+
+    @Test
+    @DisplayName("Given: If-Match with an outdated driver ETag, When: PUT /api/driver/1, Then: return 412 status with Precondition Failed")
+    void updateDriverIfMatchModified() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        when(driverService.updateDriver(eq(1), any(DriverDTO.class), eq(List.of(1L))))
+                .thenThrow(new PreconditionFailedException("Driver with ID 1 has been modified"));
+
+        mockMvc.perform(put(DRIVER_URL + "/1")
+                        .header("If-Match", "\"1-1\"")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(driverDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Driver with ID 1 has been modified"));
+    }
+
+    @Test
+    @DisplayName("Given: If-Match with the current driver ETag, When: DELETE /api/driver/1, Then: delete without reading the driver first")
+    void deleteDriverIfMatch() throws Exception {
+        when(driverService.deleteDriver(1, List.of(2L))).thenReturn(true);
+
+        mockMvc.perform(delete(DRIVER_URL + "/1").header("If-Match", "W/\"1-1\", \"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Driver with ID 1 successfully deleted."));
+
+        verify(driverService, never()).getDriverById(anyInt());
     }
 
     @Test
@@ -237,7 +578,6 @@ class DriverControllerTest {
     @Test
     @DisplayName("Given: driverId not found, When: DELETE /api/driver/9999, Then: return 404 Not Found")
     void deleteDriverByIdNotFound() throws Exception {
-        driverService.deleteDriver(9999);
         mockMvc.perform(delete(DRIVER_URL + "/9999"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Driver with ID 9999 not found"));
@@ -0,0 +1,97 @@
+package com.example.driver.controller;
+
+import com.example.driver.dto.DriverImportDTO;
+import com.example.driver.dto.DriverImportErrorDTO;
+import com.example.driver.dto.DriverImportErrorPageDTO;
+import com.example.driver.exception.UnprocessableEntityException;
+import com.example.driver.model.DriverImport;
+import com.example.driver.service.DriverImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DriverImportController.class)
+class DriverImportControllerTest {
+    private final static String IMPORTS_URL = "/api/driver/imports";
+    private final static String ID = "0e49d84c-8e6c-4387-ab82-7639275ce50b";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private DriverImportService driverImportService;
+
+    private static DriverImportDTO driverImport(String status) {
+        return DriverImportDTO.builder().id(ID).format("CSV").status(status).build();
+    }
+
+    @Test
+    @DisplayName("Given: CSV body, When: POST /api/driver/imports, Then: queue the import and return 202 status with its location")
+    void importCsv() throws Exception {
+        String csv = "name,email,licenseNumber,vehicleModel,vehicleNumber\nRobert Brown,robert.brown@example.com,D1122334,Ford Focus,LMN9123\n";
+        when(driverImportService.submit(eq(DriverImport.Format.CSV), any(InputStream.class))).thenAnswer(invocation -> {
+            String body = new String(invocation.<InputStream>getArgument(1).readAllBytes(), StandardCharsets.UTF_8);
+            return body.equals(csv) ? driverImport("QUEUED") : null;
+        });
+
+        mockMvc.perform(post(IMPORTS_URL)
+                        .contentType(DriverImportController.TEXT_CSV_VALUE)
+                        .content(csv))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", IMPORTS_URL + "/" + ID))
+                .andExpect(content().json(objectMapper.writeValueAsString(driverImport("QUEUED"))));
+    }
+
+    @Test
+    @DisplayName("Given: unknown import, When: GET /api/driver/imports/{id}, Then: return 404 status")
+    void getImportNotFound() throws Exception {
+        when(driverImportService.getImport(ID)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(IMPORTS_URL + "/" + ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Given: import with rejected rows, When: GET /api/driver/imports/{id}/errors, Then: return 200 status with the page after the given row")
+    void getErrors() throws Exception {
+        DriverImportErrorPageDTO page = DriverImportErrorPageDTO.builder()
+                .errors(List.of(DriverImportErrorDTO.builder().row(12).status(409).errors(Map.of("email", "Email already exists")).build()))
+                .nextAfter(12)
+                .build();
+        when(driverImportService.getErrors(ID, 10, 50)).thenReturn(Optional.of(page));
+
+        mockMvc.perform(get(IMPORTS_URL + "/" + ID + "/errors")
+                        .param("after", "10")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    @DisplayName("Given: import that has not failed, When: POST /api/driver/imports/{id}/resume, Then: return 422 status")
+    void resumeNotFailed() throws Exception {
+        when(driverImportService.resume(ID)).thenThrow(new UnprocessableEntityException("Import " + ID + " is COMPLETED"));
+
+        mockMvc.perform(post(IMPORTS_URL + "/" + ID + "/resume"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.driver.controller;
+
+import com.example.driver.model.DriverImport;
+import com.example.driver.service.DriverSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DriverSnapshotController.class)
+class DriverSnapshotControllerTest {
+    private final static String SNAPSHOT_URL = "/api/driver/snapshot";
+    private final static String CONTENT = "0123456789";
+    private final static String ETAG = "\"drivers-7-csv\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DriverSnapshotService driverSnapshotService;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.writeString(directory.resolve("drivers-7.csv.gz"), CONTENT);
+        when(driverSnapshotService.getSnapshot(DriverImport.Format.CSV))
+                .thenReturn(new DriverSnapshotService.Snapshot(DriverImport.Format.CSV, 7, file, CONTENT.length()));
+    }
+
+    @Test
+    @DisplayName("Given: snapshot, When: GET /api/driver/snapshot, Then: return 200 status with the file as an attachment")
+    void getSnapshot() throws Exception {
+        mockMvc.perform(get(SNAPSHOT_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", DriverSnapshotController.APPLICATION_GZIP_VALUE))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"drivers-7.csv.gz\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().longValue("Content-Length", CONTENT.length()))
+                .andExpect(content().bytes(CONTENT.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Given: Range header, When: GET /api/driver/snapshot, Then: return 206 status with only those bytes")
+    void getSnapshotRange() throws Exception {
+        mockMvc.perform(get(SNAPSHOT_URL).header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(header().longValue("Content-Length", 4))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    @DisplayName("Given: Range with an If-Range of an older snapshot, When: GET /api/driver/snapshot, Then: return 200 status with the whole file")
+    void getSnapshotRangeOfOlderSnapshot() throws Exception {
+        mockMvc.perform(get(SNAPSHOT_URL)
+                        .header("Range", "bytes=2-5")
+                        .header("If-Range", "\"drivers-6-csv\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    @DisplayName("Given: Range past the end of the file, When: GET /api/driver/snapshot, Then: return 416 status")
+    void getSnapshotRangeNotSatisfiable() throws Exception {
+        mockMvc.perform(get(SNAPSHOT_URL).header("Range", "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */10"));
+    }
+
+    @Test
+    @DisplayName("Given: matching If-None-Match, When: GET /api/driver/snapshot, Then: return 304 status")
+    void getSnapshotNotModified() throws Exception {
+        mockMvc.perform(get(SNAPSHOT_URL).header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Given: unknown format, When: GET /api/driver/snapshot, Then: return 400 status")
+    void getSnapshotUnknownFormat() throws Exception {
+        mockMvc.perform(get(SNAPSHOT_URL).param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(driverSnapshotService);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.driver.controller;
+
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UniqueException;
+import com.example.driver.mock.MockDriver;
+import com.example.driver.service.ReactiveDriverService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.FluxExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReactiveDriverControllerTest {
+    private final static String DRIVER_URL = "/api/reactive/driver";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ReactiveDriverService reactiveDriverService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        reactiveDriverService = mock(ReactiveDriverService.class);
+        ReactiveDriverController controller = new ReactiveDriverController(reactiveDriverService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        webTestClient = WebTestClient.bindToRouterFunction(controller.routes()).build();
+    }
+
+    @Test
+    @DisplayName("Given: driverId found, When: GET /api/reactive/driver/1, Then: return 200 status with driverDTO")
+    void getDriverById() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        when(reactiveDriverService.getDriverById(1)).thenReturn(Mono.just(driverDTO));
+
+        webTestClient.get().uri(DRIVER_URL + "/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json(objectMapper.writeValueAsString(driverDTO));
+    }
+
+    @Test
+    @DisplayName("Given: driverId not found, When: GET /api/reactive/driver/9999, Then: return 404 status with Not Found")
+    void getDriverByIdNotFound() {
+        when(reactiveDriverService.getDriverById(9999)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri(DRIVER_URL + "/9999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Driver with ID 9999 not found");
+    }
+
+    @Test
+    @DisplayName("Given: driverId not a number, When: GET /api/reactive/driver/abc, Then: return 400 status without calling the service")
+    void getDriverByIdInvalid() {
+        webTestClient.get().uri(DRIVER_URL + "/abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Invalid driver id: abc");
+
+        verifyNoInteractions(reactiveDriverService);
+    }
+
+    @Test
+    @DisplayName("Given: drivers, When: GET /api/reactive/driver/all as NDJSON, Then: stream one driver per line")
+    void streamAllDrivers() throws Exception {
+        DriverDTO first = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        DriverDTO second = MockDriver.getDriverDTO(2, "John Doe", "john.doe@example.com", "D1234567", "Toyota Corolla", "ABC1234");
+        when(reactiveDriverService.getAllDrivers()).thenReturn(Flux.just(first, second));
+
+        webTestClient.get().uri(DRIVER_URL + "/all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo(objectMapper.writeValueAsString(first) + "\n"
+                        + objectMapper.writeValueAsString(second) + "\n");
+    }
+
+    @Test
+    @DisplayName("Given: drivers, When: GET /api/reactive/driver/all accepting anything, Then: return a JSON array")
+    void getAllDrivers() throws Exception {
+        List<DriverDTO> driverDTOList = List.of(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
+        when(reactiveDriverService.getAllDrivers()).thenReturn(Flux.fromIterable(driverDTOList));
+
+        webTestClient.get().uri(DRIVER_URL + "/all")
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(objectMapper.writeValueAsString(driverDTOList));
+    }
+
+    @Test
+    @DisplayName("Given: drivers still being read, When: GET /api/reactive/driver/all as JSON, Then: write the array as drivers arrive")
+    void streamsJsonArray() throws Exception {
+        DriverDTO first = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        // Never completes, so a collected body would never be written
+        when(reactiveDriverService.getAllDrivers()).thenReturn(Flux.concat(Flux.just(first), Flux.never()));
+
+        FluxExchangeResult<DataBuffer> result = webTestClient.get().uri(DRIVER_URL + "/all")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .returnResult(DataBuffer.class);
+
+        String expected = "[" + objectMapper.writeValueAsString(first);
+        StepVerifier.create(result.getResponseBody().map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+                .expectNext(expected)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Given: driverIds one found and one not found, When: GET /api/reactive/driver?id=1&id=999, Then: return 200 with header X-MISSING-SET")
+    void getDriverByIdsOneFoundAndOneNotFound() throws Exception {
+        List<DriverDTO> driverDTOList =
+                List.of(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
+        when(reactiveDriverService.getDriverByIds(anyList())).thenReturn(Flux.fromIterable(driverDTOList));
+
+        webTestClient.get().uri(DRIVER_URL + "?id=1&id=999")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-MISSING-SET", "999")
+                .expectBody().json(objectMapper.writeValueAsString(driverDTOList));
+
+        verify(reactiveDriverService).getDriverByIds(List.of(1, 999));
+    }
+
+    @Test
+    @DisplayName("Given: license number exists, When: POST /api/reactive/driver, Then: return 409 status with Conflict")
+    void createDriverConflict() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO();
+        when(reactiveDriverService.createDriver(any(DriverDTO.class)))
+                .thenReturn(Mono.error(new UniqueException("License Number already exists")));
+
+        webTestClient.post().uri(DRIVER_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(driverDTO))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.message").isEqualTo("License Number already exists");
+    }
+
+    @Test
+    @DisplayName("Given: driver without name, When: POST /api/reactive/driver, Then: return 400 status with the field error")
+    void createDriverInvalid() throws Exception {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(null, "", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+
+        webTestClient.post().uri(DRIVER_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(driverDTO))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.name").isEqualTo("Name is required");
+
+        verifyNoInteractions(reactiveDriverService);
+    }
+
+    @Test
+    @DisplayName("Given: driverId not found, When: DELETE /api/reactive/driver/9999, Then: return 404 status with Not Found")
+    void deleteDriverNotFound() {
+        when(reactiveDriverService.deleteDriver(9999)).thenReturn(Mono.just(false));
+
+        webTestClient.delete().uri(DRIVER_URL + "/9999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Driver with ID 9999 not found");
+    }
+}
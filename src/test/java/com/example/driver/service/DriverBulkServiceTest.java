@@ -0,0 +1,239 @@
+package com.example.driver.service;
+
+import com.example.driver.config.BulkProperties;
+import com.example.driver.config.DriverCacheProperties;
+import com.example.driver.config.UniqueIndexProperties;
+import com.example.driver.dto.BulkResultDTO;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UniqueField;
+import com.example.driver.mapper.DriverMapper;
+import com.example.driver.mock.MockDriver;
+import com.example.driver.model.Driver;
+import com.example.driver.repository.ConflictingKey;
+import com.example.driver.repository.DriverRepository;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {DriverBulkService.class, DriverMapper.class, DriverCache.class, UniqueKeyIndex.class,
+        UniqueConflictMetrics.class, SimpleMeterRegistry.class, DriverBulkServiceTest.Config.class})
+@EnableConfigurationProperties({DriverCacheProperties.class, UniqueIndexProperties.class})
+@TestPropertySource(properties = "driver.unique-index.enabled=true")
+class DriverBulkServiceTest {
+    @Autowired
+    private DriverBulkService driverBulkService;
+
+    @Autowired
+    private UniqueKeyIndex uniqueKeyIndex;
+
+    @MockBean
+    private DriverRepository driverRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private DriverChangeLog driverChangeLog;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        BulkProperties bulkProperties() {
+            return new BulkProperties(2, 10);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+
+    private static DriverDTO driverDTO(Integer id, String suffix) {
+        return MockDriver.getDriverDTO(id, "Driver " + suffix, suffix + "@example.com", "L" + suffix, "Ford Focus", "V" + suffix);
+    }
+
+    private static ConflictingKey conflictingKey(String field, String value, Integer id) {
+        return new ConflictingKey() {
+            public String getField() {
+                return field;
+            }
+
+            public String getValue() {
+                return value;
+            }
+
+            public Integer getId() {
+                return id;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Given: valid, invalid, duplicated and taken items, When: createDrivers, Then: return one result per item")
+    void createDrivers() {
+        List<DriverDTO> driverDTOs = List.of(
+                driverDTO(null, "a"),
+                driverDTO(null, "a"),
+                MockDriver.getDriverDTO(null, "", "b@example.com", "Lb", "Ford Focus", "Vb"),
+                driverDTO(null, "c"));
+        when(driverRepository.findConflictingKeys(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(List.of(conflictingKey("EMAIL", "c@example.com", 7)));
+        when(driverRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Driver> drivers = invocation.getArgument(0);
+            drivers.forEach(driver -> driver.setId(100));
+            return drivers;
+        });
+
+        List<BulkResultDTO> results = driverBulkService.createDrivers(driverDTOs);
+
+        assertThat(results).extracting(BulkResultDTO::index).containsExactly(0, 1, 2, 3);
+        assertThat(results).extracting(BulkResultDTO::status).containsExactly(201, 409, 400, 409);
+        assertThat(results.get(0).driver().id()).isEqualTo(100);
+        assertThat(results.get(1).errors()).containsKeys("licenseNumber", "vehicleNumber", "email");
+        assertThat(results.get(2).errors()).isEqualTo(Map.of("name", "Name is required"));
+        assertThat(results.get(3).errors()).isEqualTo(Map.of("email", "Email already exists"));
+        // batch size 2: one conflict query and one batched save per batch that still has work
+        verify(driverRepository, times(2)).findConflictingKeys(anyCollection(), anyCollection(), anyCollection());
+        verify(driverRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Given: concurrent insert breaks the batch, When: createBatch, Then: retry item by item and report the conflict")
+    void createBatchFallsBackToSingleSaves() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.CONSTRAINT_INDEX_7 ON PUBLIC.DRIVER(EMAIL NULLS FIRST)\""));
+        when(driverRepository.saveAll(anyList())).thenThrow(violation);
+        when(driverRepository.save(any(Driver.class)))
+                .thenReturn(MockDriver.getDriver(100))
+                .thenThrow(violation);
+
+        List<BulkResultDTO> results = driverBulkService.createBatch(List.of(driverDTO(null, "a"), driverDTO(null, "b")), 4);
+
+        assertThat(results).extracting(BulkResultDTO::index).containsExactly(4, 5);
+        assertThat(results).extracting(BulkResultDTO::status).containsExactly(201, 409);
+        assertThat(results.get(1).errors()).isEqualTo(Map.of("email", "Email already exists"));
+    }
+
+    @Test
+    @DisplayName("Given: batch retried item by item, When: createBatch, Then: index the drivers saved one by one")
+    void createBatchIndexesSingleSaves() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.CONSTRAINT_INDEX_7 ON PUBLIC.DRIVER(EMAIL NULLS FIRST)\""));
+        when(driverRepository.saveAll(anyList())).thenThrow(violation);
+        when(driverRepository.save(any(Driver.class)))
+                .thenThrow(violation)
+                .thenAnswer(invocation -> {
+                    Driver driver = invocation.getArgument(0);
+                    driver.setId(101);
+                    return driver;
+                });
+
+        driverBulkService.createBatch(List.of(driverDTO(null, "a"), driverDTO(null, "b")), 0);
+
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "Lb")).contains(101);
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.VEHICLE_NUMBER, "Vb")).contains(101);
+    }
+
+    @Test
+    @DisplayName("Given: checkpoint, When: createBatch, Then: hand it every result before the batch commits")
+    void createBatchCheckpointsInTransaction() {
+        when(driverRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Driver> drivers = invocation.getArgument(0);
+            drivers.forEach(driver -> driver.setId(100));
+            return drivers;
+        });
+        List<List<BulkResultDTO>> checkpoints = new ArrayList<>();
+
+        driverBulkService.createBatch(Arrays.asList(driverDTO(null, "a"), null), 0, results -> {
+            verify(transactionManager, never()).commit(any());
+            checkpoints.add(results);
+        });
+
+        assertThat(checkpoints).singleElement()
+                .satisfies(results -> assertThat(results).extracting(BulkResultDTO::status).containsExactly(201, 400));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Given: existing, missing and id-less items, When: updateDrivers, Then: update only existing drivers")
+    void updateDrivers() {
+        when(driverRepository.findConflictingKeys(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(List.of(conflictingKey("LICENSE_NUMBER", "La", 1)));
+        when(driverRepository.findAllById(anyList())).thenReturn(List.of(MockDriver.getDriver(1)));
+
+        List<BulkResultDTO> results = driverBulkService.updateDrivers(List.of(driverDTO(1, "a"), driverDTO(2, "b"), driverDTO(null, "c")));
+
+        assertThat(results).extracting(BulkResultDTO::status).containsExactly(200, 404, 400);
+        assertThat(results.get(0).driver()).isEqualTo(driverDTO(1, "a"));
+        assertThat(results.get(2).errors()).isEqualTo(Map.of("id", "Id is required"));
+    }
+
+    @Test
+    @DisplayName("Given: the batch fails with something other than a constraint violation, When: updateBatch, Then: rethrow that failure")
+    void updateBatchRethrowsOtherFailures() {
+        IllegalStateException failure = new IllegalStateException("connection lost");
+        when(driverRepository.findAllById(anyList())).thenThrow(failure);
+
+        assertThatThrownBy(() -> driverBulkService.updateBatch(List.of(driverDTO(1, "a")), 0)).isSameAs(failure);
+    }
+
+    @Test
+    @DisplayName("Given: existing and missing ids, When: deleteDrivers, Then: delete existing ids in one statement per batch")
+    void deleteDrivers() {
+        when(driverRepository.findExistingIds(anyCollection())).thenReturn(List.of(1));
+
+        List<BulkResultDTO> results = driverBulkService.deleteDrivers(List.of(1, 2));
+
+        verify(driverRepository).deleteByIdIn(Set.of(1));
+        assertThat(results).extracting(BulkResultDTO::status).containsExactly(200, 404);
+        assertThat(results).extracting(BulkResultDTO::id).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Given: only unknown ids, When: deleteDrivers, Then: do not issue a delete")
+    void deleteDriversNotFound() {
+        when(driverRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        List<BulkResultDTO> results = driverBulkService.deleteDrivers(List.of(9999));
+
+        verify(driverRepository, never()).deleteByIdIn(anyCollection());
+        assertThat(results).extracting(BulkResultDTO::status).containsExactly(404);
+    }
+}
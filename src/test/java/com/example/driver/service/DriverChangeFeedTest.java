@@ -0,0 +1,78 @@
+package com.example.driver.service;
+
+import com.example.driver.dto.DriverChangeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DriverChangeFeedTest {
+    private DriverChangeLog driverChangeLog;
+    private DriverChangeFeed driverChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        driverChangeLog = mock(DriverChangeLog.class);
+        driverChangeFeed = new DriverChangeFeed(driverChangeLog, new SyncExecutor());
+    }
+
+    /** Runs drains on the calling thread so each signal is fully delivered before the test continues. */
+    private static class SyncExecutor extends SimpleAsyncTaskExecutor {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    }
+
+    private static DriverChangeDTO change(long seq) {
+        return DriverChangeDTO.builder().seq(seq).operation("UPDATE").driverId(1).build();
+    }
+
+    @Test
+    @DisplayName("Given: backlog after since, When: subscribe and a write commits, Then: deliver the backlog and then only the new entries")
+    void deliversBacklogThenNewChanges() {
+        when(driverChangeLog.findChangesAfter(5, 500)).thenReturn(List.of(change(6), change(7)));
+        when(driverChangeLog.findChangesAfter(7, 500)).thenReturn(List.of(change(8)));
+        when(driverChangeLog.findChangesAfter(8, 500)).thenReturn(List.of());
+        List<Long> received = new ArrayList<>();
+
+        driverChangeFeed.subscribe(5, change -> received.add(change.seq()));
+        driverChangeFeed.onDriverChanged(new DriverChangedEvent());
+
+        assertThat(received).containsExactly(6L, 7L, 8L);
+    }
+
+    @Test
+    @DisplayName("Given: listener fails, When: a write commits, Then: the subscription is dropped")
+    void failingListenerIsDropped() {
+        when(driverChangeLog.findChangesAfter(0, 500)).thenReturn(List.of(change(1)));
+
+        driverChangeFeed.subscribe(0, change -> {
+            throw new IOException("Broken pipe");
+        });
+        driverChangeFeed.onDriverChanged(new DriverChangedEvent());
+
+        verify(driverChangeLog, times(1)).findChangesAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Given: cancelled subscription, When: a write commits, Then: the log is not read for it")
+    void cancelledSubscription() {
+        when(driverChangeLog.findChangesAfter(0, 500)).thenReturn(List.of());
+
+        driverChangeFeed.subscribe(0, change -> {
+        }).cancel();
+        driverChangeFeed.onDriverChanged(new DriverChangedEvent());
+
+        verify(driverChangeLog, times(1)).findChangesAfter(anyLong(), anyInt());
+    }
+}
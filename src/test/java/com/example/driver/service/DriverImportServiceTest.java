@@ -0,0 +1,187 @@
+package com.example.driver.service;
+
+import com.example.driver.config.ImportProperties;
+import com.example.driver.dto.BulkResultDTO;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UnprocessableEntityException;
+import com.example.driver.model.DriverImport;
+import com.example.driver.model.DriverImportError;
+import com.example.driver.repository.DriverImportErrorRepository;
+import com.example.driver.repository.DriverImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {DriverImportService.class, ObjectMapper.class, DriverImportServiceTest.Config.class})
+class DriverImportServiceTest {
+    private static final String ID = "import-1";
+    private static final String CSV_HEADER = "name,email,licenseNumber,vehicleModel,vehicleNumber\n";
+
+    @Autowired
+    private DriverImportService driverImportService;
+
+    @Autowired
+    private ImportProperties importProperties;
+
+    @MockBean
+    private DriverImportRepository driverImportRepository;
+
+    @MockBean
+    private DriverImportErrorRepository driverImportErrorRepository;
+
+    @MockBean
+    private DriverBulkService driverBulkService;
+
+    // Jobs are run by calling run() directly
+    @MockBean
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    private DriverImport driverImport;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ImportProperties importProperties() throws IOException {
+            return new ImportProperties(Files.createTempDirectory("driver-imports"), 2);
+        }
+    }
+
+    private static String csvRow(String suffix) {
+        return "Driver " + suffix + "," + suffix + "@example.com,L" + suffix + ",Ford Focus,V" + suffix + "\n";
+    }
+
+    @BeforeEach
+    void setUp() {
+        driverImport = DriverImport.builder()
+                .id(ID)
+                .format(DriverImport.Format.CSV)
+                .status(DriverImport.Status.QUEUED)
+                .createdAt(Instant.now())
+                .build();
+        when(driverImportRepository.findById(ID)).thenAnswer(invocation -> Optional.of(driverImport));
+        when(driverImportRepository.save(any(DriverImport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Created unless the row could not be read; results are handed to the checkpoint like the real service does
+        when(driverBulkService.createBatch(anyList(), anyInt(), any())).thenAnswer(invocation -> {
+            List<DriverDTO> drivers = invocation.getArgument(0);
+            int offset = invocation.getArgument(1);
+            List<BulkResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < drivers.size(); i++) {
+                results.add(drivers.get(i) == null
+                        ? BulkResultDTO.builder().index(offset + i).status(400).errors(Map.of("driver", "Driver is required")).build()
+                        : BulkResultDTO.builder().index(offset + i).id(offset + i + 100).status(201).driver(drivers.get(i)).build());
+            }
+            invocation.<Consumer<List<BulkResultDTO>>>getArgument(2).accept(results);
+            return results;
+        });
+    }
+
+    private Path file(String content) throws IOException {
+        return Files.writeString(importProperties.directory().resolve(ID), content);
+    }
+
+    @Test
+    @DisplayName("Given: CSV file with an unreadable row, When: run, Then: import it chunk by chunk, record the row's error and complete")
+    void runCsv() throws IOException {
+        Path file = file(CSV_HEADER + csvRow("1") + "\"too\",\"many\",\"columns\",\"in\",\"this\",\"row\"\n" + csvRow("3"));
+
+        driverImportService.run(ID);
+
+        verify(driverBulkService).createBatch(argThat(chunk -> chunk.size() == 2 && chunk.get(1) == null), eq(0), any());
+        verify(driverBulkService).createBatch(argThat(chunk -> chunk.size() == 1 && "Driver 3".equals(chunk.get(0).name())), eq(2), any());
+        verify(driverImportErrorRepository).saveAll(argThat(errors -> {
+            List<DriverImportError> list = (List<DriverImportError>) errors;
+            return list.size() == 1 && list.get(0).getRowNum() == 2 && list.get(0).getStatus() == 400
+                    && list.get(0).getErrors().get("row").startsWith("Too many entries");
+        }));
+        verify(driverImportRepository).updateProgress(eq(ID), eq(3L), eq(2L), eq(1L), anyLong());
+
+        assertThat(driverImport.getStatus()).isEqualTo(DriverImport.Status.COMPLETED);
+        assertThat(driverImport.getFinishedAt()).isNotNull();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Given: import stopped after a committed chunk, When: run, Then: continue with the rows after it")
+    void runResumesAfterCommittedRows() throws IOException {
+        driverImport.setFormat(DriverImport.Format.NDJSON);
+        driverImport.setStatus(DriverImport.Status.RUNNING);
+        driverImport.setRowsRead(2);
+        driverImport.setRowsImported(2);
+        file("""
+                {"name":"Driver 1","email":"1@example.com","licenseNumber":"L1","vehicleModel":"Ford Focus","vehicleNumber":"V1"}
+                {"name":"Driver 2","email":"2@example.com","licenseNumber":"L2","vehicleModel":"Ford Focus","vehicleNumber":"V2"}
+
+                {"name":"Driver 3","email":"3@example.com","licenseNumber":"L3","vehicleModel":"Ford Focus","vehicleNumber":"V3"}
+                """);
+
+        driverImportService.run(ID);
+
+        verify(driverBulkService, times(1)).createBatch(anyList(), anyInt(), any());
+        verify(driverBulkService).createBatch(argThat(chunk -> chunk.size() == 1 && "Driver 3".equals(chunk.get(0).name())), eq(2), any());
+        verify(driverImportRepository).updateProgress(eq(ID), eq(3L), eq(3L), eq(0L), anyLong());
+        assertThat(driverImport.getStatus()).isEqualTo(DriverImport.Status.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Given: a chunk that cannot be written, When: run, Then: mark the import failed and keep its file for a resume")
+    void runFails() throws IOException {
+        Path file = file(CSV_HEADER + csvRow("1"));
+        doThrow(new IllegalStateException("Database is down")).when(driverBulkService).createBatch(anyList(), anyInt(), any());
+
+        driverImportService.run(ID);
+
+        assertThat(driverImport.getStatus()).isEqualTo(DriverImport.Status.FAILED);
+        assertThat(driverImport.getError()).isEqualTo("Database is down");
+        assertThat(file).exists();
+    }
+
+    @Test
+    @DisplayName("Given: failed import, When: resume, Then: queue it again")
+    void resume() {
+        driverImport.setStatus(DriverImport.Status.FAILED);
+        driverImport.setError("Database is down");
+
+        assertThat(driverImportService.resume(ID)).hasValueSatisfying(queued -> assertThat(queued.status()).isEqualTo("QUEUED"));
+        assertThat(driverImport.getError()).isNull();
+        verify(applicationTaskExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Given: completed import, When: resume, Then: throw UnprocessableEntityException")
+    void resumeCompleted() {
+        driverImport.setStatus(DriverImport.Status.COMPLETED);
+
+        assertThrows(UnprocessableEntityException.class, () -> driverImportService.resume(ID));
+        verifyNoInteractions(applicationTaskExecutor);
+    }
+}
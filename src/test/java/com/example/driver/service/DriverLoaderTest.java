@@ -0,0 +1,141 @@
+package com.example.driver.service;
+
+import com.example.driver.config.LookupProperties;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.mapper.DriverMapper;
+import com.example.driver.mock.MockDriver;
+import com.example.driver.repository.DriverRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class DriverLoaderTest {
+    private DriverRepository driverRepository;
+    private PlatformTransactionManager transactionManager;
+    private CountDownLatch queryStarted;
+    private CountDownLatch releaseQuery;
+
+    @BeforeEach
+    void setUp() {
+        driverRepository = mock(DriverRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        queryStarted = new CountDownLatch(1);
+        releaseQuery = new CountDownLatch(1);
+    }
+
+    private DriverLoader driverLoader(Duration batchWindow, int maxBatchSize) {
+        return new DriverLoader(driverRepository, new DriverMapper(),
+                new LookupProperties(1000, 500, false, batchWindow, maxBatchSize), new SimpleAsyncTaskExecutor(),
+                transactionManager);
+    }
+
+    /** Makes findById(1) block until released, so other lookups can arrive while it is in flight. */
+    private void blockFindById() {
+        when(driverRepository.findById(1)).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await(5, TimeUnit.SECONDS);
+            return Optional.of(MockDriver.getDriver(1));
+        });
+    }
+
+    /** Starts {@code lookup} on its own thread and returns once it is parked waiting for a load in flight. */
+    private static <T> CompletableFuture<T> startWaiting(Supplier<T> lookup) throws InterruptedException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> result.complete(lookup.get()));
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING && !result.isDone()) {
+            Thread.sleep(1);
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("Given: driver load in flight, When: load the same id, Then: share the query instead of running another")
+    void sharesInFlightLoad() throws Exception {
+        DriverLoader driverLoader = driverLoader(Duration.ZERO, 100);
+        blockFindById();
+        CompletableFuture<DriverDTO> first = CompletableFuture.supplyAsync(() -> driverLoader.load(1).value());
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<DriverDTO> second = startWaiting(() -> driverLoader.load(1).value());
+        assertThat(second).isNotDone();
+        releaseQuery.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).id()).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get());
+        verify(driverRepository, times(1)).findById(1);
+    }
+
+    @Test
+    @DisplayName("Given: lookups for different ids within the window, When: the batch fills, Then: read them with one findAllById")
+    void batchesLookupsForDifferentIds() throws Exception {
+        DriverLoader driverLoader = driverLoader(Duration.ofSeconds(10), 3);
+        when(driverRepository.findAllById(anyList()))
+                .thenReturn(List.of(MockDriver.getDriver(1), MockDriver.getDriver(2), MockDriver.getDriver(3)));
+
+        List<CompletableFuture<DriverDTO>> lookups = List.of(1, 2, 3).stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> driverLoader.load(id).value()))
+                .toList();
+
+        for (int i = 0; i < lookups.size(); i++) {
+            assertThat(lookups.get(i).get(5, TimeUnit.SECONDS).id()).isEqualTo(i + 1);
+        }
+        verify(driverRepository, times(1)).findAllById(argThat(ids -> Set.copyOf((List<Integer>) ids).equals(Set.of(1, 2, 3))));
+        verify(driverRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Given: a lone lookup, When: the window passes, Then: load it by id")
+    void loadsLoneLookupAfterWindow() {
+        DriverLoader driverLoader = driverLoader(Duration.ofMillis(5), 100);
+        when(driverRepository.findById(7)).thenReturn(Optional.empty());
+
+        assertThat(driverLoader.load(7).value()).isNull();
+        verify(driverRepository).findById(7);
+    }
+
+    @Test
+    @DisplayName("Given: one of the ids in flight, When: loadAll, Then: query only the others and wait for the one in flight")
+    void loadAllJoinsInFlightLoads() throws Exception {
+        DriverLoader driverLoader = driverLoader(Duration.ZERO, 100);
+        blockFindById();
+        when(driverRepository.findAllById(List.of(2))).thenReturn(List.of(MockDriver.getDriver(2)));
+        CompletableFuture.runAsync(() -> driverLoader.load(1));
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Map<Integer, DriverDTO>> all = startWaiting(() -> driverLoader.loadAll(Set.of(1, 2)).value());
+        releaseQuery.countDown();
+
+        assertThat(all.get(5, TimeUnit.SECONDS)).containsOnlyKeys(1, 2);
+        verify(driverRepository).findAllById(List.of(2));
+        verify(driverRepository, times(1)).findById(1);
+    }
+
+    @Test
+    @DisplayName("Given: lookups batched within the window, When: the batch is loaded on the timer thread, Then: read it in a read-only transaction")
+    void loadsBatchInReadOnlyTransaction() {
+        DriverLoader driverLoader = driverLoader(Duration.ofMillis(5), 100);
+        when(driverRepository.findById(7)).thenReturn(Optional.of(MockDriver.getDriver(7)));
+
+        assertThat(driverLoader.load(7).value().id()).isEqualTo(7);
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+        verify(transactionManager).commit(any());
+    }
+}
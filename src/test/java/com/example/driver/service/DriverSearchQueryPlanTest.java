@@ -0,0 +1,99 @@
+package com.example.driver.service;
+
+import com.example.driver.config.StatementRecordingConfig;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.dto.DriverPageDTO;
+import com.example.driver.dto.DriverSearchDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs searches against the migrated schema and checks the plan H2 picks for the exact statement and
+ * parameters sent, so a missing index or an unindexable predicate shows up as a table scan.
+ */
+@SpringBootTest
+@Import(StatementRecordingConfig.class)
+class DriverSearchQueryPlanTest {
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        StatementRecordingConfig.clear();
+    }
+
+    private static Stream<Arguments> searches() {
+        return Stream.of(
+                Arguments.of("name prefix", DriverSearchDTO.builder().name("Rob").build(), "name", "IDX_DRIVER_NAME"),
+                Arguments.of("vehicle model prefix", DriverSearchDTO.builder().vehicleModel("Hon").build(), "vehicleModel", "IDX_DRIVER_VEHICLE_MODEL"),
+                Arguments.of("email domain prefix", DriverSearchDTO.builder().emailDomain("example").build(), "id", "IDX_DRIVER_EMAIL_DOMAIN"),
+                Arguments.of("plate prefix", DriverSearchDTO.builder().plate("LMN").build(), "id", "VEHICLE_NUMBER"),
+                Arguments.of("no filter", DriverSearchDTO.builder().build(), "vehicleModel", "IDX_DRIVER_VEHICLE_MODEL"),
+                Arguments.of("no filter", DriverSearchDTO.builder().build(), "id", "PRIMARY_KEY")
+        );
+    }
+
+    @ParameterizedTest(name = "{0} sorted by {2}")
+    @MethodSource("searches")
+    @DisplayName("Given: search filters and sort, When: searchDrivers, Then: the statement reads through an index")
+    void searchUsesIndex(String description, DriverSearchDTO filter, String sort, String index) {
+        driverService.searchDrivers(filter, sort, null, 10, DriverField.ALL);
+
+        assertThat(searchPlans()).singleElement().satisfies(plan -> assertThat(plan)
+                .contains(index)
+                .doesNotContain("tableScan"));
+    }
+
+    @Test
+    @DisplayName("Given: combined filters and a cursor, When: searchDrivers, Then: every page reads through an index")
+    void combinedFiltersWithCursor() {
+        DriverSearchDTO filter = DriverSearchDTO.builder().name("J").emailDomain("example").build();
+        DriverPageDTO firstPage = driverService.searchDrivers(filter, "name", null, 1, DriverField.ALL);
+        DriverPageDTO secondPage = driverService.searchDrivers(filter, "name", firstPage.nextCursor(), 1, DriverField.ALL);
+
+        assertThat(firstPage.drivers()).extracting(DriverDTO::name).containsExactly("Jane Smith");
+        assertThat(secondPage.drivers()).extracting(DriverDTO::name).containsExactly("John Doe");
+        assertThat(searchPlans()).hasSize(2).allSatisfy(plan -> assertThat(plan)
+                .containsPattern("/\\* PUBLIC\\.IDX_DRIVER_(NAME|EMAIL_DOMAIN): ")
+                .doesNotContain("tableScan"));
+    }
+
+    @Test
+    @DisplayName("Given: fields=vehicleNumber, When: getDriverPage or searchDrivers, Then: select only that column and the keys paging needs")
+    void projectionSelectsOnlyRequestedColumns() {
+        DriverPageDTO page = driverService.getDriverPage(null, 2, EnumSet.of(DriverField.VEHICLE_NUMBER));
+        driverService.searchDrivers(DriverSearchDTO.builder().name("J").build(), "name", null, 2, EnumSet.of(DriverField.VEHICLE_NUMBER));
+
+        assertThat(page.drivers()).allSatisfy(driver -> assertThat(driver.id()).isNull())
+                .extracting(DriverDTO::vehicleNumber).doesNotContainNull();
+        assertThat(StatementRecordingConfig.statements())
+                .extracting(statement -> statement.sql().substring(0, statement.sql().indexOf(" from ")))
+                .containsExactly("select d1_0.id,d1_0.vehicle_number", "select d1_0.id,d1_0.driver_name,d1_0.vehicle_number");
+    }
+
+    private List<String> searchPlans() {
+        return StatementRecordingConfig.statements()
+                .stream()
+                .filter(statement -> statement.sql().startsWith("select") && statement.sql().contains(" from driver "))
+                .map(statement -> jdbcTemplate.queryForObject("explain " + statement.sql(), String.class, statement.parameters()))
+                .toList();
+    }
+}
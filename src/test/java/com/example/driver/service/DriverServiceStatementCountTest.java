@@ -0,0 +1,95 @@
+package com.example.driver.service;
+
+import com.example.driver.config.StatementRecordingConfig;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UniqueException;
+import net.ttddyy.dsproxy.QueryCount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Counts the JDBC statements each write sends to the real database. Every successful write is the write
+ * itself plus the three change log statements (table version bump, read back and entry insert); an update
+ * also reads back the driver's new version.
+ */
+@SpringBootTest
+@Import(StatementRecordingConfig.class)
+class DriverServiceStatementCountTest {
+    @Autowired
+    private DriverService driverService;
+
+    private DriverDTO driver;
+
+    @BeforeEach
+    void setUp() {
+        driver = driverService.createDriver(driver("D5550001", "CNT0001", "count.one@example.com")).orElseThrow();
+        StatementRecordingConfig.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        driverService.deleteDriver(driver.id());
+    }
+
+    private static DriverDTO driver(String licenseNumber, String vehicleNumber, String email) {
+        return DriverDTO.builder()
+                .name("Count Test")
+                .licenseNumber(licenseNumber)
+                .vehicleModel("Ford Focus")
+                .vehicleNumber(vehicleNumber)
+                .email(email)
+                .build();
+    }
+
+    private static QueryCount queryCount() {
+        return StatementRecordingConfig.queryCount();
+    }
+
+    @Test
+    @DisplayName("Given: existing driver, When: updateDriver, Then: send one update statement and read back only its version")
+    void updateDriver() {
+        DriverDTO updated = driverService.updateDriver(driver.id(), driver("D5550002", "CNT0002", "count.two@example.com")).orElseThrow();
+
+        assertThat(updated.version()).isEqualTo(driver.version() + 1);
+        assertThat(queryCount().getUpdate()).isEqualTo(2);
+        assertThat(queryCount().getSelect()).isEqualTo(2);
+        assertThat(queryCount().getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Given: existing driver, When: deleteDriver, Then: send one delete statement and no reads")
+    void deleteDriver() {
+        assertThat(driverService.deleteDriver(driver.id())).isTrue();
+
+        assertThat(queryCount().getDelete()).isEqualTo(1);
+        assertThat(queryCount().getSelect()).isEqualTo(1);
+        assertThat(queryCount().getTotal()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Given: driverId not found, When: updateDriver or deleteDriver, Then: the row count answers it in one statement each")
+    void notFound() {
+        assertThat(driverService.updateDriver(Integer.MAX_VALUE, driver("D5550003", "CNT0003", "count.three@example.com"))).isEmpty();
+        assertThat(driverService.deleteDriver(Integer.MAX_VALUE)).isFalse();
+
+        assertThat(queryCount().getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given: update takes another driver's email, When: updateDriver, Then: the constraint rejects it in one statement")
+    void updateDriverConflict() {
+        UniqueException thrown = assertThrows(UniqueException.class,
+                () -> driverService.updateDriver(driver.id(), driver("D5550004", "CNT0004", "john.doe@example.com")));
+
+        assertThat(thrown.getMessage()).isEqualTo("Email already exists");
+        assertThat(queryCount().getTotal()).isEqualTo(1);
+    }
+}
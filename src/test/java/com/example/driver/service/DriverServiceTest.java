@@ -1,12 +1,27 @@
 package com.example.driver.service;
 
+import com.example.driver.config.DriverCacheProperties;
+import com.example.driver.config.LookupProperties;
+import com.example.driver.config.UniqueIndexProperties;
+import com.example.driver.dto.DriverChangeDTO;
+import com.example.driver.dto.DriverChangePageDTO;
 import com.example.driver.dto.DriverDTO;
+import com.example.driver.dto.DriverField;
+import com.example.driver.dto.DriverPageDTO;
+import com.example.driver.dto.DriverSearchDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.PreconditionFailedException;
 import com.example.driver.exception.UniqueException;
+import com.example.driver.exception.UniqueField;
 import com.example.driver.mapper.DriverMapper;
 import com.example.driver.mapper.Mapper;
 import com.example.driver.mock.MockDriver;
 import com.example.driver.model.Driver;
+import com.example.driver.model.DriverChange;
 import com.example.driver.repository.DriverRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,12 +29,27 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -28,21 +58,48 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
-@ContextConfiguration(classes = {DriverService.class, DriverMapper.class})
+@ContextConfiguration(classes = {DriverService.class, DriverLoader.class, DriverMapper.class, DriverCache.class, UniqueKeyIndex.class, UniqueConflictMetrics.class,
+        SimpleMeterRegistry.class, SimpleAsyncTaskExecutor.class, DriverServiceTest.Config.class})
+@EnableConfigurationProperties({DriverCacheProperties.class, UniqueIndexProperties.class, LookupProperties.class})
+@TestPropertySource(properties = {"driver.lookup.max-ids=4", "driver.lookup.chunk-size=2", "driver.lookup.parallel=true"})
 class DriverServiceTest {
     @Autowired
     private DriverService driverService;
 
+    @Autowired
+    private DriverCache driverCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private DriverRepository driverRepository;
 
     @SpyBean
     private Mapper<Driver, DriverDTO> driverMapper;
 
+    @MockBean
+    private DriverChangeLog driverChangeLog;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+
     private static Stream<Arguments> checkCreateFieldUniqueness() {
         return Stream.of(
                 Arguments.of("License Number exists", true, false, false, "License Number already exists"),
@@ -51,6 +108,12 @@ class DriverServiceTest {
         );
     }
 
+    @BeforeEach
+    void setUp() {
+        driverCache.invalidateAll();
+        meterRegistry.clear();
+    }
+
     @Test
     @DisplayName("Given: driver id found, When: getDriverById, Then: return driverDTO")
     void getDriverById() {
@@ -79,6 +142,78 @@ class DriverServiceTest {
         assertThat(resultDriverDTO).isEmpty();
     }
 
+    @Test
+    @DisplayName("Given: unique key index disabled, When: getDriverByLicenseNumber, Then: query the database")
+    void getDriverByLicenseNumber() {
+        when(driverRepository.findByLicenseNumber("D1122334"))
+                .thenReturn(Optional.of(MockDriver.getDriver(1)));
+
+        Optional<DriverDTO> resultDriverDTO = driverService.getDriverByLicenseNumber("D1122334");
+
+        verify(driverRepository).findByLicenseNumber("D1122334");
+        assertThat(resultDriverDTO).map(DriverDTO::id).contains(1);
+    }
+
+    @Test
+    @DisplayName("Given: driver already looked up, When: getDriverById, Then: serve it from the cache")
+    void getDriverByIdCached() {
+        when(driverRepository.findById(1)).thenReturn(Optional.of(MockDriver.getDriver(1)));
+
+        driverService.getDriverById(1);
+        Optional<DriverDTO> resultDriverDTO = driverService.getDriverById(1);
+
+        verify(driverRepository, times(1)).findById(1);
+        assertThat(resultDriverDTO).map(DriverDTO::id).contains(1);
+        assertThat(driverCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: cached driver, When: updateDriver or deleteDriver, Then: next lookup reloads it")
+    void writesInvalidateCache() {
+        when(driverRepository.findById(1)).thenReturn(Optional.of(MockDriver.getDriver(1)));
+        when(driverRepository.updateReturningVersion(eq(1), anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(Optional.of(1L));
+        when(driverRepository.deleteByIdIn(List.of(1))).thenReturn(1);
+
+        driverService.getDriverById(1);
+        driverService.updateDriver(1, MockDriver.getDriverDTO());
+        driverService.getDriverById(1);
+        driverService.deleteDriver(1);
+        driverService.getDriverById(1);
+
+        // one load per lookup, the writes themselves read nothing
+        verify(driverRepository, times(3)).findById(1);
+    }
+
+    @Test
+    @DisplayName("Given: some ids cached, When: getDriverByIds, Then: load only the misses")
+    void getDriverByIdsLoadsOnlyMisses() {
+        when(driverRepository.findById(1)).thenReturn(Optional.of(MockDriver.getDriver(1)));
+        when(driverRepository.findAllById(anyList())).thenReturn(List.of(MockDriver.getDriver(2)));
+
+        driverService.getDriverById(1);
+        List<DriverDTO> resultDriverDTOList = driverService.getDriverByIds(List.of(2, 1, 3));
+
+        verify(driverRepository).findAllById(argThat(ids -> ids.equals(List.of(2, 3)) || ids.equals(List.of(3, 2))));
+        assertThat(resultDriverDTOList).extracting(DriverDTO::id).containsExactly(2, 1);
+    }
+
+    @Test
+    @DisplayName("Given: driver invalidated while getDriverByIds loads it, When: getDriverByIds again, Then: reload instead of serving the stale row")
+    void getDriverByIdsDoesNotCacheAcrossInvalidation() {
+        when(driverRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            driverCache.invalidate(2);
+            return List.of(MockDriver.getDriver(2));
+        }).thenReturn(List.of(MockDriver.getDriver(2)));
+
+        driverService.getDriverByIds(List.of(2));
+        List<DriverDTO> resultDriverDTOList = driverService.getDriverByIds(List.of(2));
+
+        verify(driverRepository, times(2)).findAllById(anyList());
+        assertThat(resultDriverDTOList).extracting(DriverDTO::id).containsExactly(2);
+        assertThat(driverCache.getNativeCache().getIfPresent(2)).isNotNull();
+    }
+
     @Test
     @DisplayName("Given: -, When: getAllDrivers, Then: return driverDTO")
     void getAllDrivers() {
@@ -86,13 +221,74 @@ class DriverServiceTest {
                 MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
         when(driverRepository.findAll()).thenReturn(List.of(MockDriver.getDriver(1)));
 
-        List<DriverDTO> resultDriverDTOList = driverService.getAllDrivers();
+        List<DriverDTO> resultDriverDTOList = driverService.getAllDrivers(DriverField.ALL);
 
         verify(driverRepository).findAll();
         verify(driverMapper).mapToDTO(any(Driver.class));
         assertThat(resultDriverDTOList).isEqualTo(driverDTOList);
     }
 
+    @Test
+    @DisplayName("Given: more rows than page size, When: getDriverPage, Then: return page with next cursor")
+    void getDriverPage() {
+        when(driverRepository.findByIdGreaterThanOrderByIdAsc(eq(0), any(Limit.class)))
+                .thenReturn(List.of(MockDriver.getDriver(1), MockDriver.getDriver(2)));
+
+        DriverPageDTO resultPage = driverService.getDriverPage(null, 1, DriverField.ALL);
+
+        verify(driverRepository).findByIdGreaterThanOrderByIdAsc(0, Limit.of(2));
+        assertThat(resultPage.drivers()).extracting(DriverDTO::id).containsExactly(1);
+        assertThat(resultPage.nextCursor()).isEqualTo(DriverCursor.encode(1));
+    }
+
+    @Test
+    @DisplayName("Given: cursor on last page, When: getDriverPage, Then: return page without next cursor")
+    void getDriverPageLastPage() {
+        when(driverRepository.findByIdGreaterThanOrderByIdAsc(eq(1), any(Limit.class)))
+                .thenReturn(List.of(MockDriver.getDriver(2)));
+
+        DriverPageDTO resultPage = driverService.getDriverPage(DriverCursor.encode(1), 10, DriverField.ALL);
+
+        verify(driverRepository).findByIdGreaterThanOrderByIdAsc(1, Limit.of(11));
+        assertThat(resultPage.drivers()).extracting(DriverDTO::id).containsExactly(2);
+        assertThat(resultPage.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given: fields without id, When: getDriverPage, Then: select the fields plus id for the cursor and return only the fields")
+    void getDriverPageWithFields() {
+        when(driverRepository.findProjected(any(), eq(Sort.by("id")), eq(Limit.of(2)), eq(EnumSet.of(DriverField.ID, DriverField.NAME))))
+                .thenReturn(List.of(DriverDTO.builder().id(1).name("Robert Brown").build(), DriverDTO.builder().id(2).name("John Doe").build()));
+
+        DriverPageDTO resultPage = driverService.getDriverPage(null, 1, EnumSet.of(DriverField.NAME));
+
+        assertThat(resultPage.drivers()).containsExactly(DriverDTO.builder().name("Robert Brown").build());
+        assertThat(resultPage.nextCursor()).isEqualTo(DriverCursor.encode(1));
+        verify(driverRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    @DisplayName("Given: invalid cursor or size, When: getDriverPage, Then: throw BadRequestException")
+    void getDriverPageInvalidRequest() {
+        assertThrows(BadRequestException.class, () -> driverService.getDriverPage("not-a-cursor", 10, DriverField.ALL));
+        assertThrows(BadRequestException.class, () -> driverService.getDriverPage(null, 0, DriverField.ALL));
+        assertThrows(BadRequestException.class, () -> driverService.getDriverPage(null, DriverService.MAX_PAGE_SIZE + 1, DriverField.ALL));
+
+        verifyNoInteractions(driverRepository);
+    }
+
+    @Test
+    @DisplayName("Given: drivers in table, When: streamAllDrivers, Then: consumer receives every driverDTO")
+    void streamAllDrivers() {
+        DriverDTO driverDTO = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
+        when(driverRepository.streamAll()).thenReturn(Stream.of(driverDTO));
+
+        List<DriverDTO> streamed = new ArrayList<>();
+        driverService.streamAllDrivers(DriverField.ALL, streamed::add);
+
+        assertThat(streamed).containsExactly(driverDTO);
+    }
+
     @Test
     @DisplayName("Given: driverIds, When: getDriverByIds, Then: return driverDTO List")
     void getDriverByIds() {
@@ -107,6 +303,30 @@ class DriverServiceTest {
         assertThat(resultDriverDTOList).isEqualTo(driverDTOList);
     }
 
+    @Test
+    @DisplayName("Given: more ids than the chunk size, When: getDriverByIds, Then: query the chunks in parallel and keep request order")
+    void getDriverByIdsChunked() {
+        when(driverRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Integer> chunk = invocation.getArgument(0);
+            return chunk.stream().filter(id -> id != 3).map(MockDriver::getDriver).toList();
+        });
+
+        List<DriverDTO> resultDriverDTOList = driverService.getDriverByIds(Arrays.asList(4, 1, null, 3, 1, 2));
+
+        verify(driverRepository, times(2)).findAllById(argThat(ids -> ((Collection<?>) ids).size() == 2));
+        assertThat(resultDriverDTOList).extracting(DriverDTO::id).containsExactly(4, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Given: more distinct ids than driver.lookup.max-ids, When: getDriverByIds, Then: throw BadRequestException")
+    void getDriverByIdsTooMany() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> driverService.getDriverByIds(List.of(1, 2, 3, 4, 5)));
+
+        assertEquals("At most 4 distinct ids can be requested at once", exception.getMessage());
+        verifyNoInteractions(driverRepository);
+    }
+
     @Test
     @DisplayName("Given: driverIds not found, When: getDriverByIds, Then: return empty driverDTO List")
     void getDriverByIdsNotFound() {
@@ -132,29 +352,190 @@ class DriverServiceTest {
         assertThat(resultDriverDTO).isEqualTo(expectedDriverDTO);
     }
 
+    @Test
+    @DisplayName("Given: license number and email taken, When: createDriver, Then: count one conflict per field")
+    void createDriverCountsConflicts() {
+        DriverDTO driverDTO = MockDriver.getDriverDTO();
+        when(driverRepository.findConflictingFields(anyString(), anyString(), anyString(), isNull()))
+                .thenReturn(List.of("LICENSE_NUMBER", "EMAIL"));
+
+        assertThrows(UniqueException.class, () -> driverService.createDriver(driverDTO));
+
+        assertThat(meterRegistry.counter("driver.unique.conflicts", "field", "licenseNumber", "source", "query").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("driver.unique.conflicts", "field", "email", "source", "query").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("driver.unique.conflicts").tag("field", "vehicleNumber").counter()).isNull();
+    }
+
     @ParameterizedTest(name = "{0}")
     @MethodSource("checkCreateFieldUniqueness")
     void createDriverThrowException(String scenario, boolean licenseExists, boolean vehicleExists, boolean emailExists, String expectedMessage) {
         DriverDTO driverDTO =
                 MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123");
 
-        when(driverRepository.existsDriverByLicenseNumber(driverDTO.licenseNumber())).thenReturn(licenseExists);
-        when(driverRepository.existsDriverByVehicleNumber(driverDTO.vehicleNumber())).thenReturn(vehicleExists);
-        when(driverRepository.existsDriverByEmail(driverDTO.email())).thenReturn(emailExists);
+        List<String> conflicts = new ArrayList<>();
+        if (licenseExists) conflicts.add("LICENSE_NUMBER");
+        if (vehicleExists) conflicts.add("VEHICLE_NUMBER");
+        if (emailExists) conflicts.add("EMAIL");
+        when(driverRepository.findConflictingFields(driverDTO.licenseNumber(), driverDTO.vehicleNumber(), driverDTO.email(), null))
+                .thenReturn(conflicts);
 
         UniqueException thrown = assertThrows(UniqueException.class, () -> {
             driverService.createDriver(driverDTO);
         });
 
         assertEquals(expectedMessage, thrown.getMessage());
+        verify(driverRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Given: several unique fields taken, When: createDriver, Then: report every conflict in field order")
+    void createDriverReportsAllConflicts() {
+        DriverDTO driverDTO = MockDriver.getDriverDTO();
+        when(driverRepository.findConflictingFields(anyString(), anyString(), anyString(), isNull()))
+                .thenReturn(List.of("EMAIL", "LICENSE_NUMBER"));
+
+        UniqueException thrown = assertThrows(UniqueException.class, () -> driverService.createDriver(driverDTO));
+
+        assertThat(thrown.getFields()).containsExactly(UniqueField.LICENSE_NUMBER, UniqueField.EMAIL);
+        assertEquals("License Number already exists, Email already exists", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Given: concurrent insert violates unique constraint, When: createDriver, Then: throw UniqueException")
+    void createDriverTranslatesConstraintViolation() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.CONSTRAINT_INDEX_7 ON PUBLIC.DRIVER(VEHICLE_NUMBER NULLS FIRST) VALUES ( /* 3 */ 'LMN9123' )\""));
+        when(driverRepository.save(any(Driver.class))).thenThrow(violation);
+
+        UniqueException thrown = assertThrows(UniqueException.class, () -> driverService.createDriver(MockDriver.getDriverDTO()));
+
+        assertEquals("Vehicle Number already exists", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Given: driver found, When: updateDriver, Then: update in one statement without a read or conflict query and return the new version")
+    void updateDriverInOneStatement() {
+        DriverDTO driverDTO = MockDriver.getDriverDTO();
+        when(driverRepository.updateReturningVersion(1, driverDTO.name(), driverDTO.licenseNumber(), driverDTO.vehicleModel(),
+                driverDTO.vehicleNumber(), driverDTO.email())).thenReturn(Optional.of(4L));
+
+        Optional<DriverDTO> resultDriverDTO = driverService.updateDriver(1, driverDTO);
+
+        assertThat(resultDriverDTO).map(DriverDTO::version).contains(4L);
+        verify(driverRepository, never()).findById(anyInt());
+        verify(driverRepository, never()).findConflictingFields(anyString(), anyString(), anyString(), any());
+        verify(driverChangeLog).append(DriverChange.Operation.UPDATE, List.of(1));
+    }
+
+    @Test
+    @DisplayName("Given: driverId not found, When: updateDriver, Then: return empty without appending a change")
+    void updateDriverNotFound() {
+        assertThat(driverService.updateDriver(9999, MockDriver.getDriverDTO())).isEmpty();
+        verify(driverChangeLog, never()).append(any(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Given: update takes another driver's email, When: updateDriver, Then: constraint violation throws UniqueException")
+    void updateDriverTranslatesConstraintViolation() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.CONSTRAINT_INDEX_7 ON PUBLIC.DRIVER(EMAIL NULLS FIRST) VALUES ( /* 2 */ 'jane.smith@example.com' )\""));
+        when(driverRepository.updateReturningVersion(eq(1), anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(violation);
+
+        UniqueException thrown = assertThrows(UniqueException.class, () -> driverService.updateDriver(1, MockDriver.getDriverDTO()));
+
+        assertEquals("Email already exists", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Given: expected version matches, When: updateDriver with versions, Then: update in one statement and return the next version")
+    void updateDriverIfVersion() {
+        DriverDTO driverDTO = MockDriver.getDriverDTO();
+        when(driverRepository.updateIfVersion(1, driverDTO.name(), driverDTO.licenseNumber(), driverDTO.vehicleModel(),
+                driverDTO.vehicleNumber(), driverDTO.email(), List.of(2L))).thenReturn(Optional.of(3L));
+
+        Optional<DriverDTO> resultDriverDTO = driverService.updateDriver(1, driverDTO, List.of(2L));
+
+        assertThat(resultDriverDTO).map(DriverDTO::version).contains(3L);
+        verify(driverRepository, never()).findById(anyInt());
+        verify(driverChangeLog).append(DriverChange.Operation.UPDATE, List.of(1));
+    }
+
+    @Test
+    @DisplayName("Given: driver changed since the expected version, When: updateDriver with versions, Then: throw PreconditionFailedException")
+    void updateDriverIfVersionModified() {
+        when(driverRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> driverService.updateDriver(1, MockDriver.getDriverDTO(), List.of(1L)));
+        verify(driverChangeLog, never()).append(any(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Given: driverId not found, When: deleteDriver with versions, Then: return false")
+    void deleteDriverIfVersionNotFound() {
+        assertThat(driverService.deleteDriver(9999, List.of(0L))).isFalse();
+        verify(driverRepository).deleteIfVersion(9999, List.of(0L));
+    }
+
+    @Test
+    @DisplayName("Given: more matches than the page size, When: searchDrivers, Then: return the page and a cursor tied to the sort")
+    void searchDrivers() {
+        DriverSearchDTO filter = DriverSearchDTO.builder().name("Rob").build();
+        when(driverRepository.findProjected(any(), eq(Sort.by("name", "id")), eq(Limit.of(2)), eq(DriverField.ALL)))
+                .thenReturn(List.of(MockDriver.getDriverDTO(3, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"),
+                        MockDriver.getDriverDTO(7, "Robert Green", "robert.green@example.com", "D7654321", "Ford Focus", "LMN7654")));
+
+        DriverPageDTO page = driverService.searchDrivers(filter, "name", null, 1, DriverField.ALL);
+
+        assertThat(page.drivers()).extracting(DriverDTO::id).containsExactly(3);
+        assertThat(page.nextCursor()).isNotNull();
+        driverService.searchDrivers(filter, "name", page.nextCursor(), 1, DriverField.ALL);
+        assertThrows(BadRequestException.class, () -> driverService.searchDrivers(filter, "id", page.nextCursor(), 1, DriverField.ALL));
+        assertThrows(BadRequestException.class, () -> driverService.searchDrivers(filter, "email", null, 1, DriverField.ALL));
+    }
+
+    @Test
+    @DisplayName("Given: driver, When: createDriver, Then: append a CREATE change in the same transaction")
+    void createDriverAppendsChange() {
+        when(driverRepository.save(any(Driver.class))).thenReturn(MockDriver.getDriver(51));
+
+        driverService.createDriver(MockDriver.getDriverDTO());
+
+        verify(driverChangeLog).append(DriverChange.Operation.CREATE, List.of(51));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Given: changes after since, When: getChanges, Then: return them with the last seq as nextSince")
+    void getChanges() {
+        List<DriverChangeDTO> changes = List.of(
+                DriverChangeDTO.builder().seq(4).operation("DELETE").driverId(3).build(),
+                DriverChangeDTO.builder().seq(5).operation("CREATE").driverId(51).build());
+        when(driverChangeLog.findChangesAfter(3, 2)).thenReturn(changes);
+
+        DriverChangePageDTO page = driverService.getChanges(3, 2);
+
+        assertThat(page.changes()).isEqualTo(changes);
+        assertThat(page.nextSince()).isEqualTo(5);
+        assertThat(driverService.getChanges(5, 2).nextSince()).isEqualTo(5);
+        assertThrows(BadRequestException.class, () -> driverService.getChanges(0, 0));
     }
 
     @Test
     @DisplayName("Given: driverId, When: delete, Then: success delete")
     void deleteDriver() {
-        when(driverRepository.findById(1)).thenReturn(Optional.of(MockDriver.getDriver(1)));
-        driverService.deleteDriver(1);
+        when(driverRepository.deleteByIdIn(List.of(1))).thenReturn(1);
 
-        verify(driverRepository).deleteById(1);
+        assertThat(driverService.deleteDriver(1)).isTrue();
+
+        verify(driverRepository, never()).findById(anyInt());
+        verify(driverChangeLog).append(DriverChange.Operation.DELETE, List.of(1));
+    }
+
+    @Test
+    @DisplayName("Given: driverId not found, When: delete, Then: return false without appending a change")
+    void deleteDriverNotFound() {
+        assertThat(driverService.deleteDriver(9999)).isFalse();
+        verify(driverChangeLog, never()).append(any(), anyCollection());
     }
 }
@@ -0,0 +1,134 @@
+package com.example.driver.service;
+
+import com.example.driver.config.SnapshotProperties;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.mock.MockDriver;
+import com.example.driver.model.DriverImport;
+import com.example.driver.repository.DriverRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class DriverSnapshotServiceTest {
+    private static final DriverDTO FIRST = MockDriver.getDriverDTO(1, "John Doe", "john.doe@example.com", "D1234567", "Toyota Corolla", "ABC1234");
+    private static final DriverDTO SECOND = MockDriver.getDriverDTO(2, "Jane Smith", "jane.smith@example.com", "D7654321", "Honda Civic", "XYZ5678");
+
+    @TempDir
+    private Path directory;
+
+    private DriverRepository driverRepository;
+    private PlatformTransactionManager transactionManager;
+    private DriverSnapshotService driverSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        driverRepository = mock(DriverRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        driverSnapshotService = driverSnapshotService(Duration.ZERO);
+        when(driverRepository.streamAll()).thenAnswer(invocation -> Stream.of(FIRST, SECOND));
+    }
+
+    private DriverSnapshotService driverSnapshotService(Duration deleteAfter) {
+        return new DriverSnapshotService(driverRepository, transactionManager,
+                new SnapshotProperties(directory, deleteAfter), new ObjectMapper());
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("Given: no snapshot yet, When: getSnapshot as CSV, Then: write the table gzipped in one repeatable-read transaction")
+    void getSnapshotCsv() throws IOException {
+        when(driverRepository.findTableVersion()).thenReturn(7L);
+
+        DriverSnapshotService.Snapshot snapshot = driverSnapshotService.getSnapshot(DriverImport.Format.CSV);
+
+        assertThat(snapshot.version()).isEqualTo(7);
+        assertThat(snapshot.file()).isEqualTo(directory.resolve("drivers-7.csv.gz"));
+        assertThat(snapshot.size()).isEqualTo(Files.size(snapshot.file()));
+        assertThat(gunzip(snapshot.file())).isEqualTo("""
+                id,name,email,licenseNumber,vehicleModel,vehicleNumber,version
+                1,"John Doe",john.doe@example.com,D1234567,"Toyota Corolla",ABC1234,
+                2,"Jane Smith",jane.smith@example.com,D7654321,"Honda Civic",XYZ5678,
+                """);
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()
+                && definition.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+    }
+
+    @Test
+    @DisplayName("Given: snapshot taken, When: getSnapshot again at the same table version, Then: return it without reading the rows again")
+    void getSnapshotReusesUnchanged() {
+        when(driverRepository.findTableVersion()).thenReturn(7L);
+        DriverSnapshotService.Snapshot first = driverSnapshotService.getSnapshot(DriverImport.Format.NDJSON);
+
+        assertThat(driverSnapshotService.getSnapshot(DriverImport.Format.NDJSON)).isSameAs(first);
+        verify(driverRepository, times(1)).streamAll();
+    }
+
+    @Test
+    @DisplayName("Given: table version moved since the snapshot, When: getSnapshot, Then: take a new one and delete the replaced ones")
+    void getSnapshotAfterChanges() throws IOException {
+        // Version checked before taking, then read again inside the snapshot transaction
+        when(driverRepository.findTableVersion()).thenReturn(7L, 8L, 8L, 9L, 9L);
+
+        driverSnapshotService.getSnapshot(DriverImport.Format.NDJSON);
+        driverSnapshotService.getSnapshot(DriverImport.Format.NDJSON);
+        DriverSnapshotService.Snapshot latest = driverSnapshotService.getSnapshot(DriverImport.Format.NDJSON);
+
+        assertThat(latest.version()).isEqualTo(9);
+        assertThat(gunzip(latest.file())).isEqualTo(new ObjectMapper().writeValueAsString(FIRST) + "\n"
+                + new ObjectMapper().writeValueAsString(SECOND) + "\n");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString())).containsExactly("drivers-9.ndjson.gz");
+        }
+    }
+
+    @Test
+    @DisplayName("Given: snapshot replaced within delete-after, When: a newer one is taken, Then: keep the replaced files for downloads handed them")
+    void getSnapshotKeepsRecentlyReplaced() throws IOException {
+        driverSnapshotService = driverSnapshotService(Duration.ofMinutes(10));
+        Files.write(directory.resolve("drivers-6.csv.gz"), new byte[]{1});
+        Files.write(directory.resolve("drivers-7.csv.gz"), new byte[]{1});
+        Files.setLastModifiedTime(directory.resolve("drivers-7.csv.gz"), FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+        when(driverRepository.findTableVersion()).thenReturn(8L);
+
+        driverSnapshotService.getSnapshot(DriverImport.Format.CSV);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("drivers-7.csv.gz", "drivers-8.csv.gz");
+        }
+    }
+
+    @Test
+    @DisplayName("Given: file already written for the current version, When: getSnapshot, Then: reuse it without reading the rows")
+    void getSnapshotReusesExistingFile() throws IOException {
+        Files.write(directory.resolve("drivers-7.csv.gz"), new byte[]{1, 2, 3});
+        when(driverRepository.findTableVersion()).thenReturn(7L);
+
+        assertThat(driverSnapshotService.getSnapshot(DriverImport.Format.CSV).size()).isEqualTo(3);
+        verify(driverRepository, never()).streamAll();
+    }
+}
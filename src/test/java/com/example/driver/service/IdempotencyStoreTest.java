@@ -0,0 +1,113 @@
+package com.example.driver.service;
+
+import com.example.driver.config.IdempotencyProperties;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.UniqueException;
+import com.example.driver.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+    private static final UnaryOperator<String> REPLAYED = result -> "replayed " + result;
+
+    private IdempotencyStore idempotencyStore;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(1), 8));
+        executions = new AtomicInteger();
+    }
+
+    private String create() {
+        return "driver " + executions.incrementAndGet();
+    }
+
+    @Test
+    @DisplayName("Given: key already executed, When: execute with the same key and request, Then: replay the result without running again")
+    void replaysResult() {
+        assertThat(idempotencyStore.execute("k1", "request", this::create, REPLAYED)).isEqualTo("driver 1");
+        assertThat(idempotencyStore.execute("k1", "request", this::create, REPLAYED)).isEqualTo("replayed driver 1");
+        assertThat(idempotencyStore.execute("k2", "request", this::create, REPLAYED)).isEqualTo("driver 2");
+    }
+
+    @Test
+    @DisplayName("Given: key already executed, When: execute with the same key and another request, Then: throw UnprocessableEntityException")
+    void rejectsReusedKey() {
+        idempotencyStore.execute("k1", "request", this::create, REPLAYED);
+
+        assertThrows(UnprocessableEntityException.class, () -> idempotencyStore.execute("k1", "other", this::create, REPLAYED));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given: blank or too long key, When: execute, Then: throw BadRequestException")
+    void rejectsInvalidKey() {
+        assertThrows(BadRequestException.class, () -> idempotencyStore.execute(" ", "request", this::create, REPLAYED));
+        assertThrows(BadRequestException.class, () -> idempotencyStore.execute("123456789", "request", this::create, REPLAYED));
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Given: first attempt still running, When: execute with the same key, Then: wait for it and replay its result")
+    void collapsesConcurrentRetries() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("k1", "request", () -> {
+            started.countDown();
+            await(release);
+            return create();
+        }, REPLAYED));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> retry = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("k1", "request", this::create, REPLAYED));
+        assertThat(retry).isNotDone();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("driver 1");
+        assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo("replayed driver 1");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given: first attempt failed with a conflict, When: execute with the same key, Then: rethrow the conflict without running again")
+    void replaysClientError() {
+        assertThrows(UniqueException.class, () -> idempotencyStore.execute("k1", "request", () -> {
+            executions.incrementAndGet();
+            throw new UniqueException("Email already exists");
+        }, REPLAYED));
+
+        UniqueException replayed = assertThrows(UniqueException.class, () -> idempotencyStore.execute("k1", "request", this::create, REPLAYED));
+        assertThat(replayed.getMessage()).isEqualTo("Email already exists");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given: first attempt failed unexpectedly, When: execute with the same key, Then: run again")
+    void forgetsServerError() {
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("k1", "request", () -> {
+            throw new IllegalStateException("Connection is not available");
+        }, REPLAYED));
+
+        assertThat(idempotencyStore.execute("k1", "request", this::create, REPLAYED)).isEqualTo("driver 1");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
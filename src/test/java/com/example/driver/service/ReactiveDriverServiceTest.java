@@ -0,0 +1,149 @@
+package com.example.driver.service;
+
+import com.example.driver.config.DriverCacheProperties;
+import com.example.driver.config.LookupProperties;
+import com.example.driver.config.UniqueIndexProperties;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.BadRequestException;
+import com.example.driver.exception.UniqueException;
+import com.example.driver.mapper.DriverRecordMapper;
+import com.example.driver.mock.MockDriver;
+import com.example.driver.model.DriverRecord;
+import com.example.driver.repository.ReactiveDriverRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {ReactiveDriverService.class, DriverRecordMapper.class, DriverCache.class, UniqueKeyIndex.class,
+        UniqueConflictMetrics.class, SimpleMeterRegistry.class})
+@EnableConfigurationProperties({DriverCacheProperties.class, UniqueIndexProperties.class, LookupProperties.class})
+@TestPropertySource(properties = {"driver.lookup.max-ids=4", "driver.lookup.chunk-size=2"})
+class ReactiveDriverServiceTest {
+
+    @Autowired
+    private ReactiveDriverService reactiveDriverService;
+
+    @Autowired
+    private DriverCache driverCache;
+
+    @MockBean
+    private ReactiveDriverRepository reactiveDriverRepository;
+
+    @MockBean
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @MockBean
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static DriverRecord getDriverRecord(Integer id) {
+        return DriverRecord.builder()
+                .id(id)
+                .name("Robert Brown")
+                .licenseNumber("D" + id)
+                .vehicleModel("Ford Focus")
+                .vehicleNumber("LMN" + id)
+                .email("driver" + id + "@example.com")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given: ids spanning two chunks, When: getDriverByIds, Then: query per chunk and emit found drivers in request order")
+    void getDriverByIds() {
+        when(reactiveDriverRepository.findAllById(List.of(3, 1))).thenReturn(Flux.just(getDriverRecord(1), getDriverRecord(3)));
+        when(reactiveDriverRepository.findAllById(List.of(2))).thenReturn(Flux.empty());
+
+        StepVerifier.create(reactiveDriverService.getDriverByIds(Arrays.asList(3, null, 1, 3, 2)))
+                .expectNextMatches(driverDTO -> driverDTO.id() == 3)
+                .expectNextMatches(driverDTO -> driverDTO.id() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Given: more distinct ids than allowed, When: getDriverByIds, Then: error with BadRequestException without querying")
+    void getDriverByIdsOverLimit() {
+        StepVerifier.create(reactiveDriverService.getDriverByIds(List.of(1, 2, 3, 4, 5)))
+                .verifyError(BadRequestException.class);
+
+        verifyNoInteractions(reactiveDriverRepository);
+    }
+
+    @Test
+    @DisplayName("Given: unique keys free, When: createDriver twice, Then: take ids from one block of the sequence and cache the drivers")
+    void createDriver() {
+        DriverDTO driverDTO = MockDriver.getDriverDTO();
+        when(reactiveDriverRepository.findConflictingFields(anyString(), anyString(), anyString(), isNull())).thenReturn(Flux.empty());
+        when(reactiveDriverRepository.nextId()).thenReturn(Mono.just(100L));
+        when(r2dbcEntityTemplate.insert(any(DriverRecord.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(reactiveDriverRepository.incrementTableVersion()).thenReturn(Mono.just(7L));
+        when(reactiveDriverRepository.appendChange(eq(7L), anyInt(), eq("CREATE"), any(Instant.class))).thenReturn(Mono.just(1));
+
+        // Like JPA's pooled optimizer, sequence value 100 covers ids 51 to 100
+        StepVerifier.create(reactiveDriverService.createDriver(driverDTO))
+                .expectNextMatches(created -> created.id() == 51 && created.licenseNumber().equals(driverDTO.licenseNumber()))
+                .verifyComplete();
+        StepVerifier.create(reactiveDriverService.createDriver(driverDTO))
+                .expectNextMatches(created -> created.id() == 52)
+                .verifyComplete();
+
+        verify(reactiveDriverRepository, times(1)).nextId();
+        assertThat(driverCache.getNativeCache().getIfPresent(51)).isNotNull();
+        assertThat(driverCache.getNativeCache().getIfPresent(52)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Given: license number taken, When: createDriver, Then: error with UniqueException and insert nothing")
+    void createDriverConflict() {
+        when(reactiveDriverRepository.findConflictingFields(anyString(), anyString(), anyString(), isNull()))
+                .thenReturn(Flux.just("LICENSE_NUMBER"));
+        when(reactiveDriverRepository.nextId()).thenReturn(Mono.just(100L));
+
+        StepVerifier.create(reactiveDriverService.createDriver(MockDriver.getDriverDTO()))
+                .verifyError(UniqueException.class);
+
+        verifyNoInteractions(r2dbcEntityTemplate);
+    }
+
+    @Test
+    @DisplayName("Given: driverId not found, When: deleteDriver, Then: emit false without deleting")
+    void deleteDriverNotFound() {
+        when(reactiveDriverRepository.existsById(9999)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(reactiveDriverService.deleteDriver(9999))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(reactiveDriverRepository, never()).deleteById(anyInt());
+    }
+}
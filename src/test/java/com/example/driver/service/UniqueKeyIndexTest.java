@@ -0,0 +1,80 @@
+package com.example.driver.service;
+
+import com.example.driver.config.UniqueIndexProperties;
+import com.example.driver.dto.DriverDTO;
+import com.example.driver.exception.UniqueField;
+import com.example.driver.mock.MockDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UniqueKeyIndexTest {
+    private UniqueKeyIndex uniqueKeyIndex;
+
+    @BeforeEach
+    void setUp() {
+        uniqueKeyIndex = new UniqueKeyIndex(new UniqueIndexProperties(true));
+    }
+
+    @Test
+    @DisplayName("Given: indexed driver, When: findCandidate, Then: return its id for each unique key")
+    void findCandidate() {
+        uniqueKeyIndex.put(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
+
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "D1122334")).contains(1);
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.VEHICLE_NUMBER, "LMN9123")).contains(1);
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.EMAIL, "robert.brown@example.com")).contains(1);
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "LMN9123")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given: driver keys changed, When: put, Then: old keys are released")
+    void putReplacesChangedKeys() {
+        uniqueKeyIndex.put(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
+        uniqueKeyIndex.put(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D9999999", "Ford Focus", "LMN9123"));
+
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "D1122334")).isEmpty();
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "D9999999")).contains(1);
+        assertThat(uniqueKeyIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: key moved to another driver, When: remove previous holder, Then: new holder is kept")
+    void removeKeepsNewHolder() {
+        uniqueKeyIndex.put(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
+        uniqueKeyIndex.put(MockDriver.getDriverDTO(2, "Jane Doe", "jane.doe@example.com", "D1122334", "Honda Civic", "ABC1234"));
+
+        uniqueKeyIndex.remove(1);
+
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "D1122334")).contains(2);
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.EMAIL, "robert.brown@example.com")).isEmpty();
+        assertThat(uniqueKeyIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given: driver written during the initial load, When: load reads the older row, Then: keep the written keys")
+    void loadDoesNotOverwriteWrites() {
+        DriverDTO written = MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D9999999", "Ford Focus", "LMN9123");
+        uniqueKeyIndex.put(written);
+
+        uniqueKeyIndex.load(1, "D1122334", "LMN9123", "robert.brown@example.com");
+        uniqueKeyIndex.markReady();
+
+        assertThat(uniqueKeyIndex.isReady()).isTrue();
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "D9999999")).contains(1);
+        assertThat(uniqueKeyIndex.findCandidate(UniqueField.LICENSE_NUMBER, "D1122334")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given: index disabled, When: put, Then: nothing is stored and it never reports ready")
+    void disabled() {
+        UniqueKeyIndex disabled = new UniqueKeyIndex(new UniqueIndexProperties(false));
+        disabled.put(MockDriver.getDriverDTO(1, "Robert Brown", "robert.brown@example.com", "D1122334", "Ford Focus", "LMN9123"));
+        disabled.markReady();
+
+        assertThat(disabled.size()).isZero();
+        assertThat(disabled.isReady()).isFalse();
+    }
+}
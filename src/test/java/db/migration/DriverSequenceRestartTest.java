@@ -0,0 +1,46 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DriverSequenceRestartTest {
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sequence-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    @DisplayName("Given: ids beyond the old sequence start, When: migrate, Then: the next block starts above the highest id")
+    void restartsAboveHighestId() {
+        Flyway.configure().dataSource(dataSource).target("6").load().migrate();
+        jdbcTemplate.update("INSERT INTO driver(id, driver_name, license_number, vehicle_model, vehicle_number, email) " +
+                "VALUES (1000, 'Big Id', 'D9990001', 'Ford Focus', 'BIG0001', 'big.id@example.com')");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        // The pooled optimizer hands out the 50 ids up to and including the value
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR driver_seq", Long.class)).isEqualTo(1050);
+    }
+
+    @Test
+    @DisplayName("Given: migrated schema, When: insert without an id, Then: fail since only the sequence supplies ids")
+    void dropsIdentity() {
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO driver(driver_name, license_number, vehicle_model, vehicle_number, email) " +
+                "VALUES ('No Id', 'D9990002', 'Ford Focus', 'NOID001', 'no.id@example.com')"))
+                .hasMessageContaining("ID");
+    }
+}